@@ -15,9 +15,47 @@ function createAngularSessionClass(ts_impl, sessionClass) {
     var AngularSession = (function (_super) {
         __extends(AngularSession, _super);
         function AngularSession() {
-            return _super.apply(this, arguments) || this;
+            var _this = _super.apply(this, arguments) || this;
+            /**
+             * The IDE asks for html errors on every highlighting pass and for project errors right after,
+             * both cover the same templates: reuse diagnostics until a file changes.
+             * Diagnostics are kept without the source file, each caller gets them with its own one
+             */
+            _this.ngDiagnosticsCache = {};
+            return _this;
         }
         AngularSession.prototype.executeCommand = function (request) {
+            var command = request.command;
+            if (command == ts_impl.server.CommandNames.Change ||
+                command == ts_impl.server.CommandNames.Open ||
+                command == ts_impl.server.CommandNames.Close ||
+                command == ts_impl.server.CommandNames.Reload ||
+                command == ts_impl.server.CommandNames.ReloadProjects ||
+                command == ts_impl.server.CommandNames.IDEChangeFiles) {
+                this.ngDiagnosticsCache = {};
+            }
+            if (command == ts_impl.server.CommandNames.IDEGetHtmlErrors ||
+                command == ts_impl.server.CommandNames.IDENgCompletions ||
+                command == ts_impl.server.CommandNames.IDEGetProjectHtmlErr) {
+                var start = this.getTime();
+                var result = this.executeNgCommand(request);
+                this.logMessage("Angular command " + command + " took " + (this.getTime() - start) + " ms");
+                return result;
+            }
+            if (skipAngular) {
+                return _super.prototype.executeCommand.call(this, request);
+            }
+            if (command == ts_impl.server.CommandNames.Open) {
+                if (this.tsVersion() == "2.0.5") {
+                    var openArgs = request.arguments;
+                    var file = openArgs.file;
+                    var normalizePath = ts_impl.normalizePath(file);
+                    this.projectService.getOrCreateScriptInfoForNormalizedPath(normalizePath, true, openArgs.fileContent);
+                }
+            }
+            return _super.prototype.executeCommand.call(this, request);
+        };
+        AngularSession.prototype.executeNgCommand = function (request) {
             var command = request.command;
             if (command == ts_impl.server.CommandNames.IDEGetHtmlErrors) {
                 var args = request.arguments;
@@ -36,17 +74,6 @@ function createAngularSessionClass(ts_impl, sessionClass) {
                 }
                 return { response: { infos: this.getProjectDiagnosticsEx(project) }, responseRequired: true };
             }
-            if (skipAngular) {
-                return _super.prototype.executeCommand.call(this, request);
-            }
-            if (command == ts_impl.server.CommandNames.Open) {
-                if (this.tsVersion() == "2.0.5") {
-                    var openArgs = request.arguments;
-                    var file = openArgs.file;
-                    var normalizePath = ts_impl.normalizePath(file);
-                    this.projectService.getOrCreateScriptInfoForNormalizedPath(normalizePath, true, openArgs.fileContent);
-                }
-            }
             return _super.prototype.executeCommand.call(this, request);
         };
         AngularSession.prototype.beforeFirstMessage = function () {
@@ -139,6 +166,7 @@ function createAngularSessionClass(ts_impl, sessionClass) {
         };
         AngularSession.prototype.refreshStructureEx = function () {
             _super.prototype.refreshStructureEx.call(this);
+            this.ngDiagnosticsCache = {};
             if (skipAngular) {
                 return;
             }
@@ -242,15 +270,19 @@ function createAngularSessionClass(ts_impl, sessionClass) {
                 //globalError
                 return [];
             }
+            var cacheKey = this.getProjectConfigPathEx(project) + "|" + normalizedFileName;
+            var cached = this.ngDiagnosticsCache[cacheKey];
+            if (cached) {
+                return this.withSourceFile(cached, languageService, normalizedFileName, sourceFile);
+            }
             var diags = [];
             try {
                 var errors = ngLanguageService.getDiagnostics(normalizedFileName);
                 if (errors && errors.length) {
-                    var file = sourceFile != null ? sourceFile : this.getNgHost(languageService).getSourceFile(normalizedFileName);
                     for (var _i = 0, errors_1 = errors; _i < errors_1.length; _i++) {
                         var error = errors_1[_i];
                         diags.push({
-                            file: file,
+                            file: null,
                             start: error.span.start,
                             length: error.span.end - error.span.start,
                             messageText: "Angular: " + error.message,
@@ -259,20 +291,36 @@ function createAngularSessionClass(ts_impl, sessionClass) {
                         });
                     }
                 }
+                this.ngDiagnosticsCache[cacheKey] = diags;
+                diags = this.withSourceFile(diags, languageService, normalizedFileName, sourceFile);
             }
             catch (err) {
                 this.logError(err, "ng diagnostics");
-                diags.push({
-                    file: null,
-                    code: -1,
-                    messageText: "Angular Language Service internal globalError: " + err.message,
-                    start: 0,
-                    length: 0,
-                    category: ts_impl.DiagnosticCategory.Warning
-                });
+                diags = [{
+                        file: null,
+                        code: -1,
+                        messageText: "Angular Language Service internal globalError: " + err.message,
+                        start: 0,
+                        length: 0,
+                        category: ts_impl.DiagnosticCategory.Warning
+                    }];
             }
             return diags;
         };
+        AngularSession.prototype.withSourceFile = function (diags, languageService, normalizedFileName, sourceFile) {
+            if (diags.length == 0) {
+                return diags;
+            }
+            var file = sourceFile != null ? sourceFile : this.getNgHost(languageService).getSourceFile(normalizedFileName);
+            return diags.map(function (diag) { return ({
+                file: file,
+                start: diag.start,
+                length: diag.length,
+                messageText: diag.messageText,
+                category: diag.category,
+                code: diag.code
+            }); });
+        };
         AngularSession.prototype.appendPluginProjectDiagnostics = function (project, program, diags) {
             var _this = this;
             var result = _super.prototype.appendPluginProjectDiagnostics.call(this, project, program, diags);
@@ -16,7 +16,50 @@ export function createAngularSessionClass(ts_impl: typeof ts, sessionClass: { ne
     let globalError = skipAngular ? skipAngular : null;
     abstract class AngularSession extends sessionClass {
 
+        /**
+         * The IDE asks for html errors on every highlighting pass and for project errors right after,
+         * both cover the same templates: reuse diagnostics until a file changes.
+         * Diagnostics are kept without the source file, each caller gets them with its own one
+         */
+        private ngDiagnosticsCache: { [key: string]: ts.Diagnostic[] } = {};
+
         executeCommand(request: ts.server.protocol.Request): { response?: any; responseRequired?: boolean } {
+            let command = request.command;
+            if (command == ts_impl.server.CommandNames.Change ||
+                command == ts_impl.server.CommandNames.Open ||
+                command == ts_impl.server.CommandNames.Close ||
+                command == ts_impl.server.CommandNames.Reload ||
+                command == ts_impl.server.CommandNames.ReloadProjects ||
+                command == ts_impl.server.CommandNames.IDEChangeFiles) {
+                this.ngDiagnosticsCache = {};
+            }
+
+            if (command == ts_impl.server.CommandNames.IDEGetHtmlErrors ||
+                command == ts_impl.server.CommandNames.IDENgCompletions ||
+                command == ts_impl.server.CommandNames.IDEGetProjectHtmlErr) {
+                let start = this.getTime();
+                let result = this.executeNgCommand(request);
+                this.logMessage("Angular command " + command + " took " + (this.getTime() - start) + " ms");
+                return result;
+            }
+
+            if (skipAngular) {
+                return super.executeCommand(request);
+            }
+
+            if (command == ts_impl.server.CommandNames.Open) {
+                if (this.tsVersion() == "2.0.5") {
+                    const openArgs = <ts.server.protocol.OpenRequestArgs>request.arguments;
+                    let file = openArgs.file;
+                    let normalizePath = ts_impl.normalizePath(file);
+                    (this.projectService as any).getOrCreateScriptInfoForNormalizedPath(normalizePath, true, openArgs.fileContent);
+                }
+            }
+
+            return super.executeCommand(request);
+        }
+
+        private executeNgCommand(request: ts.server.protocol.Request): { response?: any; responseRequired?: boolean } {
             let command = request.command;
             if (command == ts_impl.server.CommandNames.IDEGetHtmlErrors) {
                 let args = request.arguments;
@@ -39,19 +82,6 @@ export function createAngularSessionClass(ts_impl: typeof ts, sessionClass: { ne
                 return {response: {infos: this.getProjectDiagnosticsEx(project)}, responseRequired: true}
             }
 
-            if (skipAngular) {
-                return super.executeCommand(request);
-            }
-
-            if (command == ts_impl.server.CommandNames.Open) {
-                if (this.tsVersion() == "2.0.5") {
-                    const openArgs = <ts.server.protocol.OpenRequestArgs>request.arguments;
-                    let file = openArgs.file;
-                    let normalizePath = ts_impl.normalizePath(file);
-                    (this.projectService as any).getOrCreateScriptInfoForNormalizedPath(normalizePath, true, openArgs.fileContent);
-                }
-            }
-
             return super.executeCommand(request);
         }
 
@@ -145,6 +175,7 @@ export function createAngularSessionClass(ts_impl: typeof ts, sessionClass: { ne
 
         refreshStructureEx(): void {
             super.refreshStructureEx();
+            this.ngDiagnosticsCache = {};
 
             if (skipAngular) {
                 return;
@@ -259,14 +290,19 @@ export function createAngularSessionClass(ts_impl: typeof ts, sessionClass: { ne
                 return [];
             }
 
+            let cacheKey = this.getProjectConfigPathEx(project) + "|" + normalizedFileName;
+            let cached = this.ngDiagnosticsCache[cacheKey];
+            if (cached) {
+                return this.withSourceFile(cached, languageService, normalizedFileName, sourceFile);
+            }
+
             let diags = [];
             try {
                 let errors = ngLanguageService.getDiagnostics(normalizedFileName);
                 if (errors && errors.length) {
-                    let file = sourceFile != null ? sourceFile : (this.getNgHost(languageService) as any).getSourceFile(normalizedFileName);
                     for (const error of errors) {
                         diags.push({
-                            file,
+                            file: null,
                             start: error.span.start,
                             length: error.span.end - error.span.start,
                             messageText: "Angular: " + error.message,
@@ -275,22 +311,43 @@ export function createAngularSessionClass(ts_impl: typeof ts, sessionClass: { ne
                         });
                     }
                 }
+                this.ngDiagnosticsCache[cacheKey] = diags;
+                diags = this.withSourceFile(diags, languageService, normalizedFileName, sourceFile);
             } catch (err) {
                 this.logError(err, "ng diagnostics");
-                diags.push({
+                diags = [{
                     file: null,
                     code: -1,
                     messageText: "Angular Language Service internal globalError: " + err.message,
                     start: 0,
                     length: 0,
                     category: ts_impl.DiagnosticCategory.Warning
-                })
+                }];
             }
 
             return diags;
         }
 
 
+        private withSourceFile(diags: ts.Diagnostic[],
+                               languageService: ts.LanguageService,
+                               normalizedFileName: string,
+                               sourceFile: ts.SourceFile): ts.Diagnostic[] {
+            if (diags.length == 0) {
+                return diags;
+            }
+
+            let file = sourceFile != null ? sourceFile : (this.getNgHost(languageService) as any).getSourceFile(normalizedFileName);
+            return diags.map(diag => ({
+                file,
+                start: diag.start,
+                length: diag.length,
+                messageText: diag.messageText,
+                category: diag.category,
+                code: diag.code
+            }));
+        }
+
         appendPluginProjectDiagnostics(project: ts.server.Project, program: ts.Program, diags: ts.server.protocol.DiagnosticEventBody[]
                                            | null): ts.server.protocol.DiagnosticEventBody[] | null {
             let result = super.appendPluginProjectDiagnostics(project, program, diags);
@@ -0,0 +1,197 @@
+package org.angularjs.codeInsight;
+
+import com.intellij.lang.javascript.DialectDetector;
+import com.intellij.lang.javascript.psi.JSImplicitElementProvider;
+import com.intellij.lang.javascript.psi.stubs.JSImplicitElement;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.roots.ProjectRootModificationTracker;
+import com.intellij.openapi.util.text.StringUtil;
+import com.intellij.openapi.vfs.VirtualFileManager;
+import com.intellij.psi.PsiElement;
+import com.intellij.psi.stubs.StubIndexKey;
+import com.intellij.psi.util.CachedValueProvider;
+import com.intellij.psi.util.CachedValuesManager;
+import com.intellij.psi.util.PsiUtilCore;
+import com.intellij.psi.xml.XmlTag;
+import com.intellij.util.ThreeState;
+import org.angularjs.index.AngularDirectivesDocIndex;
+import org.angularjs.index.AngularDirectivesIndex;
+import org.angularjs.index.AngularIndexKeys;
+import org.angularjs.index.AngularIndexUtil;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.*;
+
+/**
+ * Directives of the project resolved once per change of JavaScript code, files or roots. Attribute descriptors are requested for every HTML tag and
+ * element directives for every tag and CSS selector, so resolving each directive name through the indices made them
+ * cost tags x directives index lookups.
+ */
+public class AngularDirectivesModel {
+  private final Map<String, List<Directive>> myDocDirectives;
+  private final Map<String, List<Directive>> myDirectives;
+  private final Map<String, JSImplicitElement> myTagDirectives = new LinkedHashMap<>();
+
+  private AngularDirectivesModel(@NotNull Project project) {
+    myDocDirectives = collectDirectives(project, AngularDirectivesDocIndex.KEY);
+    myDirectives = collectDirectives(project, AngularDirectivesIndex.KEY);
+
+    for (Map.Entry<String, List<Directive>> entry : myDocDirectives.entrySet()) {
+      final JSImplicitElement directive = getTagDirective(entry.getValue());
+      if (directive != null) myTagDirectives.put(entry.getKey(), directive);
+    }
+    for (Map.Entry<String, List<Directive>> entry : myDirectives.entrySet()) {
+      if (myTagDirectives.containsKey(entry.getKey())) continue;
+      final JSImplicitElement directive = getTagDirective(entry.getValue());
+      if (directive != null) myTagDirectives.put(entry.getKey(), directive);
+    }
+  }
+
+  @NotNull
+  public static AngularDirectivesModel getInstance(@NotNull final Project project) {
+    return CachedValuesManager.getManager(project).getCachedValue(project, () -> CachedValueProvider.Result.create(
+      new AngularDirectivesModel(project), AngularIndexKeys.getInstance(project).getJSModificationTracker(),
+      VirtualFileManager.VFS_STRUCTURE_MODIFICATIONS, ProjectRootModificationTracker.getInstance(project)));
+  }
+
+  /**
+   * @return names of directives from {@link AngularDirectivesDocIndex}, in index order
+   */
+  @NotNull
+  public Set<String> getDocDirectiveNames() {
+    return myDocDirectives.keySet();
+  }
+
+  /**
+   * @return names of directives from {@link AngularDirectivesIndex}, in index order
+   */
+  @NotNull
+  public Set<String> getDirectiveNames() {
+    return myDirectives.keySet();
+  }
+
+  /**
+   * @return directives usable as tags, documented ones first
+   */
+  @NotNull
+  public Collection<JSImplicitElement> getTagDirectives() {
+    return myTagDirectives.values();
+  }
+
+  @Nullable
+  public JSImplicitElement getTagDirective(@NotNull String directiveName) {
+    return myTagDirectives.get(directiveName);
+  }
+
+  /**
+   * @return declaration of the directive applicable as an attribute of <code>tag</code>, <code>null</code> if the first declaration
+   * found is not applicable or {@link PsiUtilCore#NULL_PSI_ELEMENT} if there are no declarations
+   */
+  @Nullable
+  public PsiElement getAttributeDirective(@NotNull String directiveName, @NotNull XmlTag tag, boolean fromDocIndex) {
+    final List<Directive> directives = (fromDocIndex ? myDocDirectives : myDirectives).get(directiveName);
+    PsiElement result = PsiUtilCore.NULL_PSI_ELEMENT;
+    if (directives == null) return result;
+
+    for (Directive directive : directives) {
+      final ThreeState applicable = directive.isApplicableAsAttribute(tag);
+      if (applicable == ThreeState.YES) {
+        result = directive.myElement;
+      }
+      if (applicable == ThreeState.NO && result == PsiUtilCore.NULL_PSI_ELEMENT) {
+        return null;
+      }
+    }
+    return result;
+  }
+
+  @NotNull
+  private static Map<String, List<Directive>> collectDirectives(@NotNull Project project,
+                                                                @NotNull StubIndexKey<String, JSImplicitElementProvider> index) {
+    final Map<String, List<Directive>> result = new LinkedHashMap<>();
+    for (String directiveName : AngularIndexUtil.getAllKeys(index, project)) {
+      final List<Directive> directives = new ArrayList<>(1);
+      AngularIndexUtil.multiResolve(project, index, directiveName, element -> {
+        directives.add(new Directive(project, element));
+        return true;
+      });
+      result.put(directiveName, directives);
+    }
+    return result;
+  }
+
+  /**
+   * Same as {@link AngularIndexUtil#resolve} followed by the element restriction check
+   */
+  @Nullable
+  private static JSImplicitElement getTagDirective(@NotNull List<Directive> directives) {
+    Directive resolved = null;
+    for (Directive directive : directives) {
+      resolved = directive;
+      if (directive.myTypeScript) break;
+    }
+    return resolved != null && resolved.myRestrict != null && StringUtil.containsIgnoreCase(resolved.myRestrict, "E")
+           ? resolved.myElement : null;
+  }
+
+  private static class Directive {
+    private final JSImplicitElement myElement;
+    private final boolean myTypeScript;
+    // null if the element has no restrictions at all
+    @Nullable private final String myRestrict;
+    @Nullable private final String myRequiredTag;
+
+    private Directive(@NotNull Project project, @NotNull JSImplicitElement element) {
+      myElement = element;
+      myTypeScript = DialectDetector.isTypeScript(element);
+      final String restrictions = element.getTypeString();
+      if (restrictions != null) {
+        final String[] split = restrictions.split(";", -1);
+        myRestrict = StringUtil.notNullize(AngularIndexUtil.convertRestrictions(project, split[0]));
+        myRequiredTag = split[1];
+      }
+      else {
+        myRestrict = null;
+        myRequiredTag = null;
+      }
+    }
+
+    @NotNull
+    private ThreeState isApplicableAsAttribute(@NotNull XmlTag tag) {
+      if (myRestrict == null) {
+        return ThreeState.YES;
+      }
+      if (!StringUtil.isEmpty(myRestrict) && !StringUtil.containsIgnoreCase(myRestrict, "A")) {
+        return ThreeState.NO;
+      }
+      return tagMatches(tag, myRequiredTag) ? ThreeState.YES : ThreeState.NO;
+    }
+  }
+
+  private static boolean tagMatches(XmlTag tag, String requiredTag) {
+    if (StringUtil.isEmpty(requiredTag) || StringUtil.equalsIgnoreCase(requiredTag, "ANY")) {
+      return true;
+    }
+    for (String s : requiredTag.split(",")) {
+      if (StringUtil.equalsIgnoreCase(tag.getName(), s.trim())) {
+        return true;
+      }
+    }
+    if ("input".equalsIgnoreCase(requiredTag)) {
+      PsiElement parent = tag;
+      while (parent != null) {
+        parent = parent.getParent();
+        if (parent instanceof XmlTag && isForm((XmlTag)parent)) {
+          return true;
+        }
+      }
+    }
+    return false;
+  }
+
+  private static boolean isForm(XmlTag parent) {
+    final String name = parent.getName();
+    return "form".equalsIgnoreCase(name) || "ng-form".equalsIgnoreCase(name);
+  }
+}
@@ -1,23 +1,18 @@
 package org.angularjs.codeInsight;
 
 import com.intellij.lang.javascript.psi.JSCallExpression;
-import com.intellij.lang.javascript.psi.JSImplicitElementProvider;
 import com.intellij.lang.javascript.psi.JSLiteralExpression;
 import com.intellij.lang.javascript.psi.ecma6.ES6Decorator;
 import com.intellij.lang.javascript.psi.stubs.JSImplicitElement;
 import com.intellij.openapi.project.Project;
 import com.intellij.openapi.util.text.StringUtil;
 import com.intellij.psi.PsiElement;
-import com.intellij.psi.stubs.StubIndexKey;
 import com.intellij.util.Processor;
-import org.angularjs.index.AngularDirectivesDocIndex;
 import org.angularjs.index.AngularDirectivesIndex;
 import org.angularjs.index.AngularIndexUtil;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
-import java.util.Collection;
-
 import static com.intellij.openapi.util.text.StringUtil.trimEnd;
 import static com.intellij.openapi.util.text.StringUtil.trimStart;
 
@@ -66,45 +61,16 @@ public class DirectiveUtil {
 
   public static boolean processTagDirectives(final Project project,
                                              Processor<JSImplicitElement> processor) {
-    final Collection<String> docDirectives = AngularIndexUtil.getAllKeys(AngularDirectivesDocIndex.KEY, project);
-    for (String directiveName : docDirectives) {
-      final JSImplicitElement directive = getTagDirective(project, directiveName, AngularDirectivesDocIndex.KEY);
-      if (directive != null) {
-        if (!processor.process(directive)) {
-          return false;
-        }
-      }
-    }
-    final Collection<String> directives = AngularIndexUtil.getAllKeys(AngularDirectivesIndex.KEY, project);
-    for (String directiveName : directives) {
-      if (!docDirectives.contains(directiveName)) {
-        final JSImplicitElement directive = getTagDirective(project, directiveName, AngularDirectivesIndex.KEY);
-        if (directive != null) {
-          if (!processor.process(directive)) {
-            return false;
-          }
-        }
+    for (JSImplicitElement directive : AngularDirectivesModel.getInstance(project).getTagDirectives()) {
+      if (!processor.process(directive)) {
+        return false;
       }
     }
     return true;
   }
 
   public static JSImplicitElement getTagDirective(String directiveName, Project project) {
-    final JSImplicitElement directive = getTagDirective(project, directiveName, AngularDirectivesDocIndex.KEY);
-    return directive == null ? getTagDirective(project, directiveName, AngularDirectivesIndex.KEY) : directive;
-  }
-
-  private static JSImplicitElement getTagDirective(Project project, String directiveName, final StubIndexKey<String, JSImplicitElementProvider> index) {
-    final JSImplicitElement directive = AngularIndexUtil.resolve(project, index, directiveName);
-    final String restrictions = directive != null ? directive.getTypeString() : null;
-    if (restrictions != null) {
-      final String[] split = restrictions.split(";", -1);
-      final String restrict = AngularIndexUtil.convertRestrictions(project, split[0]);
-      if (!StringUtil.isEmpty(restrict) && StringUtil.containsIgnoreCase(restrict, "E")) {
-        return directive;
-      }
-    }
-    return null;
+    return AngularDirectivesModel.getInstance(project).getTagDirective(directiveName);
   }
 
   @Nullable
@@ -3,23 +3,20 @@ package org.angularjs.codeInsight.attributes;
 import com.intellij.lang.javascript.psi.JSImplicitElementProvider;
 import com.intellij.lang.javascript.psi.stubs.JSImplicitElement;
 import com.intellij.openapi.project.Project;
-import com.intellij.openapi.util.Ref;
-import com.intellij.openapi.util.text.StringUtil;
 import com.intellij.psi.PsiElement;
 import com.intellij.psi.impl.source.html.dtd.HtmlElementDescriptorImpl;
 import com.intellij.psi.stubs.StubIndexKey;
 import com.intellij.psi.util.PsiUtilCore;
 import com.intellij.psi.xml.XmlAttribute;
 import com.intellij.psi.xml.XmlTag;
-import com.intellij.util.ThreeState;
 import com.intellij.xml.XmlAttributeDescriptor;
 import com.intellij.xml.XmlAttributeDescriptorsProvider;
 import com.intellij.xml.XmlElementDescriptor;
+import org.angularjs.codeInsight.AngularDirectivesModel;
 import org.angularjs.codeInsight.DirectiveUtil;
 import org.angularjs.index.AngularDirectivesDocIndex;
 import org.angularjs.index.AngularDirectivesIndex;
 import org.angularjs.index.AngularIndexUtil;
-import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
 import java.util.Collection;
@@ -38,7 +35,8 @@ public class AngularJSAttributeDescriptorsProvider implements XmlAttributeDescri
       final Map<String, XmlAttributeDescriptor> result = new LinkedHashMap<>();
       final Project project = xmlTag.getProject();
       final XmlElementDescriptor descriptor = xmlTag.getDescriptor();
-      final Collection<String> directives = AngularIndexUtil.getAllKeys(AngularDirectivesIndex.KEY, project);
+      final AngularDirectivesModel model = AngularDirectivesModel.getInstance(project);
+      final Collection<String> directives = model.getDirectiveNames();
       if (AngularIndexUtil.hasAngularJS2(project)) {
         if (descriptor instanceof HtmlElementDescriptorImpl) {
           final XmlAttributeDescriptor[] descriptors = ((HtmlElementDescriptorImpl)descriptor).getDefaultAttributeDescriptors(xmlTag);
@@ -60,7 +58,7 @@ public class AngularJSAttributeDescriptorsProvider implements XmlAttributeDescri
           }
         }
       }
-      final Collection<String> docDirectives = AngularIndexUtil.getAllKeys(AngularDirectivesDocIndex.KEY, project);
+      final Collection<String> docDirectives = model.getDocDirectiveNames();
       for (String directiveName : docDirectives) {
         PsiElement declaration = applicableDirective(project, directiveName, xmlTag, AngularDirectivesDocIndex.KEY);
         if (isApplicable(declaration)) {
@@ -92,66 +90,7 @@ public class AngularJSAttributeDescriptorsProvider implements XmlAttributeDescri
   }
 
   private static PsiElement applicableDirective(Project project, String directiveName, XmlTag tag, final StubIndexKey<String, JSImplicitElementProvider> index) {
-    Ref<PsiElement> result = Ref.create(PsiUtilCore.NULL_PSI_ELEMENT);
-    AngularIndexUtil.multiResolve(project, index, directiveName, (directive) -> {
-      ThreeState applicable = isApplicable(project, tag, directive);
-      if (applicable == ThreeState.YES) {
-        result.set(directive);
-      }
-      if (applicable == ThreeState.NO && result.get() == PsiUtilCore.NULL_PSI_ELEMENT) {
-        result.set(null);
-      }
-      return !result.isNull();
-    });
-    return result.get();
-  }
-
-  @NotNull
-  private static ThreeState isApplicable(Project project, XmlTag tag, JSImplicitElement directive) {
-    if (directive == null) {
-      return ThreeState.UNSURE;
-    }
-
-    final String restrictions = directive.getTypeString();
-    if (restrictions != null) {
-      final String[] split = restrictions.split(";", -1);
-      final String restrict = AngularIndexUtil.convertRestrictions(project, split[0]);
-      final String requiredTag = split[1];
-      if (!StringUtil.isEmpty(restrict) && !StringUtil.containsIgnoreCase(restrict, "A")) {
-        return ThreeState.NO;
-      }
-      if (!tagMatches(tag, requiredTag)) {
-        return ThreeState.NO;
-      }
-    }
-
-    return ThreeState.YES;
-  }
-
-  private static boolean tagMatches(XmlTag tag, String requiredTag) {
-    if (StringUtil.isEmpty(requiredTag) || StringUtil.equalsIgnoreCase(requiredTag, "ANY")) {
-      return true;
-    }
-    for (String s : requiredTag.split(",")) {
-      if (StringUtil.equalsIgnoreCase(tag.getName(), s.trim())) {
-        return true;
-      }
-    }
-    if ("input".equalsIgnoreCase(requiredTag)) {
-      PsiElement parent = tag;
-      while (parent != null) {
-        parent = parent.getParent();
-        if (parent instanceof XmlTag && isForm((XmlTag)parent)) {
-          return true;
-        }
-      }
-    }
-    return false;
-  }
-
-  private static boolean isForm(XmlTag parent) {
-    final String name = parent.getName();
-    return "form".equalsIgnoreCase(name) || "ng-form".equalsIgnoreCase(name);
+    return AngularDirectivesModel.getInstance(project).getAttributeDirective(directiveName, tag, index == AngularDirectivesDocIndex.KEY);
   }
 
   @Nullable
@@ -7,6 +7,9 @@ import com.intellij.openapi.project.Project;
 import com.intellij.openapi.util.text.StringUtil;
 import com.intellij.psi.PsiElement;
 import com.intellij.psi.PsiReference;
+import com.intellij.psi.util.CachedValueProvider;
+import com.intellij.psi.util.CachedValuesManager;
+import com.intellij.psi.util.PsiModificationTracker;
 import com.intellij.util.Processor;
 import org.angularjs.index.AngularIndexUtil;
 import org.angularjs.index.AngularUiRouterGenericStatesIndex;
@@ -37,32 +40,63 @@ public class AngularRouterStateLoader {
     return this;
   }
 
+  /**
+   * @return states passed to <code>$stateProvider.state(state)</code> as variables; if the state name is set, only the states
+   * whose names it ends with, taken from the first call having any
+   */
   public List<JSObjectLiteralExpression> loadFreelyDefinedStates() {
-    final List<JSObjectLiteralExpression> states = new ArrayList<>();
-    final Collection<String> allKeys = AngularIndexUtil.getAllKeys(AngularUiRouterGenericStatesIndex.KEY, myProject);
-    for (String key : allKeys) {
-      final List<JSImplicitElement> list = new ArrayList<>();
-      AngularIndexUtil.multiResolve(myProject, AngularUiRouterGenericStatesIndex.KEY, key, list::add);
-      for (JSImplicitElement element : list) {
-        final JSCallExpression callExpression = AngularUiRouterDiagramBuilder.findWrappingCallExpression(element);
-        if (callExpression != null) {
-          findPossibleReferences(callExpression, object -> {
-            final JSProperty name = object.findProperty("name");
-            if (name != null && name.getValue() instanceof JSLiteralExpression && ((JSLiteralExpression)name.getValue()).isQuotedLiteral()) {
-              for (String field : STATE_FIELDS) {
-                if (object.findProperty(field) != null && (myStateName == null || myStateName.endsWith(StringUtil.unquoteString(name.getValue().getText())))) {
-                  states.add(object);
-                  return true;
+    final List<GenericState> states = getGenericStates(myProject);
+    final List<JSObjectLiteralExpression> result = new ArrayList<>();
+    int call = -1;
+    for (GenericState state : states) {
+      if (myStateName == null) {
+        result.add(state.myObject);
+      }
+      else if (call >= 0 && state.myCall != call) {
+        break;
+      }
+      else if (myStateName.endsWith(state.myName)) {
+        result.add(state.myObject);
+        call = state.myCall;
+      }
+    }
+    return result;
+  }
+
+  /**
+   * Generic states are looked up for every state reference and diagram refresh, while finding them takes resolving and searching
+   * for assignments of the <code>state(...)</code> arguments, so they are collected once per PSI modification.
+   */
+  @NotNull
+  private static List<GenericState> getGenericStates(@NotNull final Project project) {
+    return CachedValuesManager.getManager(project).getCachedValue(project, () -> {
+      final List<GenericState> states = new ArrayList<>();
+      final Collection<String> allKeys = AngularIndexUtil.getAllKeys(AngularUiRouterGenericStatesIndex.KEY, project);
+      for (String key : allKeys) {
+        final List<JSImplicitElement> list = new ArrayList<>();
+        AngularIndexUtil.multiResolve(project, AngularUiRouterGenericStatesIndex.KEY, key, list::add);
+        for (JSImplicitElement element : list) {
+          final JSCallExpression callExpression = AngularUiRouterDiagramBuilder.findWrappingCallExpression(element);
+          if (callExpression != null) {
+            final int call = states.isEmpty() ? 0 : states.get(states.size() - 1).myCall + 1;
+            findPossibleReferences(callExpression, object -> {
+              final JSProperty name = object.findProperty("name");
+              if (name != null && name.getValue() instanceof JSLiteralExpression && ((JSLiteralExpression)name.getValue()).isQuotedLiteral()) {
+                for (String field : STATE_FIELDS) {
+                  if (object.findProperty(field) != null) {
+                    states.add(new GenericState(StringUtil.unquoteString(name.getValue().getText()), object, call));
+                    break;
+                  }
                 }
               }
-            }
-            return false;
-          });
-          if (myStateName != null && !states.isEmpty()) return states;
+              // collect all candidates, matching by name is done by the callers
+              return false;
+            });
+          }
         }
       }
-    }
-    return states;
+      return CachedValueProvider.Result.create(states, PsiModificationTracker.MODIFICATION_COUNT);
+    });
   }
 
   private static void findPossibleReferences(@NotNull final JSCallExpression callExpression,
@@ -131,6 +165,19 @@ public class AngularRouterStateLoader {
     }
   }
 
+  private static class GenericState {
+    @NotNull private final String myName;
+    @NotNull private final JSObjectLiteralExpression myObject;
+    // index of the state(...) call the object is passed to
+    private final int myCall;
+
+    private GenericState(@NotNull String name, @NotNull JSObjectLiteralExpression object, int call) {
+      myName = name;
+      myObject = object;
+      myCall = call;
+    }
+  }
+
   private static void processArrayWithIterateCallback(@NotNull Processor<JSObjectLiteralExpression> processor,
                                                       int deepness,
                                                       JSArrayLiteralExpression qualifier) {
@@ -99,6 +99,7 @@ public class AngularUiRouterDiagramBuilder {
 
   private void addGenericStates() {
     final List<JSObjectLiteralExpression> freeStates = new AngularRouterStateLoader(myProject).loadFreelyDefinedStates();
+    final Set<UiRouterState> states = new HashSet<>(myStates);
     for (JSObjectLiteralExpression state : freeStates) {
       final JSProperty name = state.findProperty("name");
       if (name != null && name.getValue() instanceof JSLiteralExpression && ((JSLiteralExpression)name.getValue()).isQuotedLiteral()) {
@@ -107,7 +108,7 @@ public class AngularUiRouterDiagramBuilder {
         uiState.setGeneric(true);
         uiState.setPointer(mySmartPointerManager.createSmartPsiElementPointer(name));
         fillStateParameters(uiState, state);
-        if (!myStates.contains(uiState)) myStates.add(uiState);
+        if (states.add(uiState)) myStates.add(uiState);
       }
     }
   }
@@ -133,9 +134,10 @@ public class AngularUiRouterDiagramBuilder {
     final Set<UiRouterState> statesUsedInRoots = new HashSet<>();
     for (Map.Entry<VirtualFile, RootTemplate> entry : myRootTemplates.entrySet()) {
       final Set<VirtualFile> modulesFiles = entry.getValue().getModulesFiles();
+      final PsiElement element = entry.getValue().getPointer().getElement();
+      final VirtualFile rootFile = element != null ? element.getContainingFile().getVirtualFile() : null;
       for (UiRouterState state : myStates) {
-        final PsiElement element = entry.getValue().getPointer().getElement();
-        if (modulesFiles.contains(state.getFile()) || element != null && element.getContainingFile().getVirtualFile().equals(state.getFile())) {
+        if (modulesFiles.contains(state.getFile()) || rootFile != null && rootFile.equals(state.getFile())) {
           putState2map(entry.getKey(), state, myRootTemplates2States);
           statesUsedInRoots.add(state);
         }
@@ -183,20 +183,19 @@ public class AngularUiRouterGraphBuilder {
       }
       createStateParentEdges();
 
-      final List<AngularUiRouterNode> list = new ArrayList<>();
-      list.add(myRootNode);
-      list.addAll(stateNodes.values());
-      list.addAll(templateNodes.values());
-      for (AngularUiRouterNode node : list) {
-        if (!allNodes.contains(node)) allNodes.add(node);
-      }
+      final Set<AngularUiRouterNode> nodes = new LinkedHashSet<>(allNodes);
+      nodes.add(myRootNode);
+      nodes.addAll(stateNodes.values());
+      nodes.addAll(templateNodes.values());
+      allNodes.clear();
+      allNodes.addAll(nodes);
     }
 
     private AngularUiRouterNode createLocalTemplate(PsiElement element, AngularUiRouterDiagramProvider provider) {
       final String name = element.getContainingFile().getName() + " (local)";
       final String key = element.getContainingFile().getVirtualFile().getUrl() + ":" + element.getTextRange().getStartOffset();
-      final Template template = AngularUiRouterDiagramBuilder.readTemplateFromFile(element.getProject(), name, element);
       if (!templateNodes.containsKey(key)) {
+        final Template template = AngularUiRouterDiagramBuilder.readTemplateFromFile(element.getProject(), name, element);
         final DiagramObject templateObject = new DiagramObject(Type.template, name, template.getPointer());
         final AngularUiRouterNode templateNode = new AngularUiRouterNode(templateObject, provider);
         templateNodes.put(key, templateNode);
@@ -0,0 +1,230 @@
+package org.angularjs.index;
+
+import com.intellij.lang.javascript.JavascriptLanguage;
+import com.intellij.lang.javascript.psi.JSElement;
+import com.intellij.openapi.components.ServiceManager;
+import com.intellij.openapi.project.DumbService;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.roots.ProjectRootModificationTracker;
+import com.intellij.openapi.util.ModificationTracker;
+import com.intellij.openapi.util.Ref;
+import com.intellij.openapi.util.SimpleModificationTracker;
+import com.intellij.openapi.vfs.VirtualFile;
+import com.intellij.openapi.vfs.VirtualFileManager;
+import com.intellij.openapi.vfs.newvfs.BulkFileListener;
+import com.intellij.openapi.vfs.newvfs.events.VFileContentChangeEvent;
+import com.intellij.openapi.vfs.newvfs.events.VFileEvent;
+import com.intellij.psi.*;
+import com.intellij.psi.search.GlobalSearchScope;
+import com.intellij.psi.stubs.StubIndex;
+import com.intellij.psi.stubs.StubIndexKey;
+import com.intellij.psi.util.PsiTreeUtil;
+import com.intellij.psi.util.PsiUtilCore;
+import com.intellij.util.ConcurrencyUtil;
+import com.intellij.util.containers.ContainerUtil;
+import com.intellij.util.indexing.FileBasedIndex;
+import com.intellij.util.indexing.ID;
+import com.intellij.util.messages.MessageBusConnection;
+import gnu.trove.THashMap;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Keys of Angular indices which still have values. Index key storages keep keys of removed declarations, so each key has to be checked
+ * for a value; the checks are kept between requests and redone only for what file changes could affect:
+ * <ul>
+ * <li>a live key is rechecked when the file its value was found in changes</li>
+ * <li>keys without values are rechecked after any change</li>
+ * <li>keys not seen before are checked once</li>
+ * </ul>
+ * Root changes, file creation or deletion and the end of indexing drop all checks.
+ * <p/>
+ * Also tracks changes of JavaScript code, where Angular declarations are, so that models built from the indices aren't rebuilt
+ * when only HTML markup is edited.
+ */
+public class AngularIndexKeys {
+  private final Project myProject;
+  private final ConcurrentMap<ID<String, ?>, KeySet> myKeySets = ContainerUtil.newConcurrentMap();
+  private final SimpleModificationTracker myJSModificationTracker = new SimpleModificationTracker();
+
+  public AngularIndexKeys(@NotNull Project project) {
+    myProject = project;
+    PsiManager.getInstance(project).addPsiTreeChangeListener(new PsiTreeChangeAdapter() {
+      @Override
+      public void childAdded(@NotNull PsiTreeChangeEvent event) {
+        fileChanged(event);
+      }
+
+      @Override
+      public void childRemoved(@NotNull PsiTreeChangeEvent event) {
+        fileChanged(event);
+      }
+
+      @Override
+      public void childReplaced(@NotNull PsiTreeChangeEvent event) {
+        fileChanged(event);
+      }
+
+      @Override
+      public void childMoved(@NotNull PsiTreeChangeEvent event) {
+        fileChanged(event);
+      }
+
+      @Override
+      public void childrenChanged(@NotNull PsiTreeChangeEvent event) {
+        fileChanged(event);
+      }
+    }, project);
+
+    final MessageBusConnection connection = project.getMessageBus().connect(project);
+    connection.subscribe(VirtualFileManager.VFS_CHANGES, new BulkFileListener() {
+      @Override
+      public void after(@NotNull List<? extends VFileEvent> events) {
+        for (VFileEvent event : events) {
+          if (event instanceof VFileContentChangeEvent) {
+            fileChanged(((VFileContentChangeEvent)event).getFile());
+            myJSModificationTracker.incModificationCount();
+          }
+        }
+      }
+    });
+    connection.subscribe(DumbService.DUMB_MODE, new DumbService.DumbModeListener() {
+      @Override
+      public void enteredDumbMode() {
+      }
+
+      @Override
+      public void exitDumbMode() {
+        myKeySets.clear();
+        myJSModificationTracker.incModificationCount();
+      }
+    });
+  }
+
+  public static AngularIndexKeys getInstance(@NotNull Project project) {
+    return ServiceManager.getService(project, AngularIndexKeys.class);
+  }
+
+  @NotNull
+  public Collection<String> getKeys(@NotNull ID<String, ?> index) {
+    final KeySet keySet = ConcurrencyUtil.cacheOrGet(myKeySets, index, new KeySet());
+    synchronized (keySet) {
+      return keySet.update(myProject, index);
+    }
+  }
+
+  /**
+   * @return tracker of changes of JavaScript code and of file contents changed outside of PSI; file creation, deletion and root changes
+   * aren't counted
+   */
+  @NotNull
+  public ModificationTracker getJSModificationTracker() {
+    return myJSModificationTracker;
+  }
+
+  private void fileChanged(@NotNull PsiTreeChangeEvent event) {
+    if (mayAffectJavaScript(event)) {
+      myJSModificationTracker.incModificationCount();
+    }
+    final PsiFile file = event.getFile();
+    if (file != null) {
+      fileChanged(file.getVirtualFile());
+    }
+    else if (!(event.getParent() instanceof PsiDirectory) && !(event.getChild() instanceof PsiFileSystemItem)) {
+      // not bound to a file, don't try to guess what it might affect
+      myKeySets.clear();
+    }
+  }
+
+  private void fileChanged(@Nullable VirtualFile file) {
+    if (file == null) return;
+    for (KeySet keySet : myKeySets.values()) {
+      keySet.myChangedFiles.add(file);
+    }
+  }
+
+  private static boolean mayAffectJavaScript(@NotNull PsiTreeChangeEvent event) {
+    final PsiElement parent = event.getParent();
+    if (event.getFile() == null || parent == null || parent instanceof PsiFile || isJavaScript(parent)) return true;
+    for (PsiElement child : new PsiElement[]{event.getChild(), event.getOldChild(), event.getNewChild()}) {
+      if (child != null && (isJavaScript(child) || PsiTreeUtil.findChildOfType(child, JSElement.class) != null)) return true;
+    }
+    return false;
+  }
+
+  private static boolean isJavaScript(@NotNull PsiElement element) {
+    return element.getLanguage().isKindOf(JavascriptLanguage.INSTANCE);
+  }
+
+  private static class KeySet {
+    private final Set<VirtualFile> myChangedFiles = ContainerUtil.newConcurrentSet();
+    // key -> file its value was found in
+    private Map<String, VirtualFile> myLiveKeys = new THashMap<>();
+    private Collection<String> myKeys;
+    private long myStructureModificationCount = -1;
+
+    @NotNull
+    private Collection<String> update(@NotNull Project project, @NotNull ID<String, ?> index) {
+      final long structureModificationCount = VirtualFileManager.VFS_STRUCTURE_MODIFICATIONS.getModificationCount() +
+                                              ProjectRootModificationTracker.getInstance(project).getModificationCount();
+      final List<VirtualFile> changedFiles = new ArrayList<>(myChangedFiles);
+      myChangedFiles.removeAll(changedFiles);
+
+      if (structureModificationCount != myStructureModificationCount) {
+        myStructureModificationCount = structureModificationCount;
+        myLiveKeys.clear();
+      }
+      else if (myKeys != null && changedFiles.isEmpty()) {
+        return myKeys;
+      }
+      else if (!changedFiles.isEmpty()) {
+        final Set<VirtualFile> changed = new HashSet<>(changedFiles);
+        myLiveKeys.values().removeIf(changed::contains);
+      }
+
+      final Collection<String> allKeys = index instanceof StubIndexKey
+                                         ? StubIndex.getInstance().getAllKeys((StubIndexKey<String, ?>)index, project)
+                                         : FileBasedIndex.getInstance().getAllKeys(index, project);
+      final GlobalSearchScope scope = GlobalSearchScope.allScope(project);
+      final Map<String, VirtualFile> liveKeys = new THashMap<>();
+      for (String key : allKeys) {
+        VirtualFile file = myLiveKeys.get(key);
+        if (file == null) {
+          file = findFileWithValue(project, index, key, scope);
+        }
+        if (file != null) {
+          liveKeys.put(key, file);
+        }
+      }
+      myLiveKeys = liveKeys;
+      myKeys = Collections.unmodifiableList(new ArrayList<>(liveKeys.keySet()));
+      return myKeys;
+    }
+
+    @Nullable
+    private static VirtualFile findFileWithValue(@NotNull Project project,
+                                                 @NotNull ID<String, ?> index,
+                                                 @NotNull String key,
+                                                 @NotNull GlobalSearchScope scope) {
+      final Ref<VirtualFile> result = new Ref<>();
+      if (index instanceof StubIndexKey) {
+        //noinspection unchecked
+        StubIndex.getInstance().processElements((StubIndexKey<String, PsiElement>)index, key, project, scope, PsiElement.class,
+                                                element -> {
+                                                  result.set(PsiUtilCore.getVirtualFile(element));
+                                                  return false;
+                                                });
+      }
+      else {
+        FileBasedIndex.getInstance().processValues(index, key, null, (file, value) -> {
+          result.set(file);
+          return false;
+        }, scope);
+      }
+      return result.get();
+    }
+  }
+}
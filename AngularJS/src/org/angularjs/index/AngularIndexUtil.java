@@ -13,8 +13,6 @@ import com.intellij.openapi.project.DumbService;
 import com.intellij.openapi.project.Project;
 import com.intellij.openapi.roots.ProjectRootModificationTracker;
 import com.intellij.openapi.util.Condition;
-import com.intellij.openapi.util.Key;
-import com.intellij.openapi.util.Pair;
 import com.intellij.openapi.util.Ref;
 import com.intellij.openapi.vfs.VirtualFile;
 import com.intellij.openapi.vfs.VirtualFileManager;
@@ -27,30 +25,22 @@ import com.intellij.psi.stubs.StubIndex;
 import com.intellij.psi.stubs.StubIndexKey;
 import com.intellij.psi.util.CachedValueProvider;
 import com.intellij.psi.util.CachedValuesManager;
-import com.intellij.psi.util.ParameterizedCachedValue;
-import com.intellij.psi.util.ParameterizedCachedValueProvider;
-import com.intellij.util.ConcurrencyUtil;
 import com.intellij.util.Function;
 import com.intellij.util.Processor;
 import com.intellij.util.containers.ContainerUtil;
 import com.intellij.util.indexing.FileBasedIndex;
 import com.intellij.util.indexing.ID;
 import org.jetbrains.annotations.NotNull;
-import org.jetbrains.annotations.Nullable;
 
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
-import java.util.concurrent.ConcurrentMap;
 
 /**
  * @author Dennis.Ushakov
  */
 public class AngularIndexUtil {
-  public static final int BASE_VERSION = 58;
-  private static final ConcurrentMap<String, Key<ParameterizedCachedValue<Collection<String>, Pair<Project, ID<String, ?>>>>> ourCacheKeys =
-    ContainerUtil.newConcurrentMap();
-  private static final AngularKeysProvider PROVIDER = new AngularKeysProvider();
+  public static final int BASE_VERSION = 60;
   public static final Function<JSImplicitElement, ResolveResult> JS_IMPLICIT_TO_RESOLVE_RESULT = JSResolveResult::new;
 
   public static JSImplicitElement resolve(final Project project, final StubIndexKey<String, JSImplicitElementProvider> index, final String lookupKey) {
@@ -123,11 +113,7 @@ public class AngularIndexUtil {
   }
 
   public static Collection<String> getAllKeys(final ID<String, ?> index, final Project project) {
-    final String indexId = index.getName();
-    final Key<ParameterizedCachedValue<Collection<String>, Pair<Project, ID<String, ?>>>> key =
-      ConcurrencyUtil.cacheOrGet(ourCacheKeys, indexId, Key.create("angularjs.index." + indexId));
-    final Pair<Project, ID<String, ?>> pair = Pair.create(project, index);
-    return CachedValuesManager.getManager(project).getParameterizedCachedValue(project, key, PROVIDER, false, pair);
+    return AngularIndexKeys.getInstance(project).getKeys(index);
   }
 
   public static boolean hasAngularJS(final Project project) {
@@ -167,25 +153,4 @@ public class AngularIndexUtil {
     }
     return restrictions;
   }
-
-  private static class AngularKeysProvider implements ParameterizedCachedValueProvider<Collection<String>, Pair<Project, ID<String, ?>>> {
-    @Nullable
-    @Override
-    public CachedValueProvider.Result<Collection<String>> compute(final Pair<Project, ID<String, ?>> projectAndIndex) {
-      final Project project = projectAndIndex.first;
-      final ID<String, ?> id = projectAndIndex.second;
-      final GlobalSearchScope scope = GlobalSearchScope.allScope(project);
-      final FileBasedIndex fileIndex = FileBasedIndex.getInstance();
-      final StubIndex stubIndex = StubIndex.getInstance();
-      final Collection<String> allKeys =
-        id instanceof StubIndexKey ? stubIndex.getAllKeys((StubIndexKey<String, ?>)id, project) :
-        fileIndex.getAllKeys(id, project);
-
-      return CachedValueProvider.Result.create(ContainerUtil.filter(allKeys, key -> id instanceof StubIndexKey ?
-                                                                                    !stubIndex.processElements((StubIndexKey<String, PsiElement>)id, key, project, scope, PsiElement.class,
-                                        element -> false) :
-                                                                                    !fileIndex.processValues(id, key, null,
-                                                                                                             (FileBasedIndex.ValueProcessor)(file, value) -> false, scope)), PsiManager.getInstance(project).getModificationTracker());
-    }
-  }
 }
@@ -27,6 +27,8 @@ import com.intellij.psi.impl.source.resolve.FileContextUtil;
 import com.intellij.psi.impl.source.tree.LeafElement;
 import com.intellij.psi.impl.source.tree.TreeUtil;
 import com.intellij.psi.stubs.IndexSink;
+import com.intellij.psi.tree.IElementType;
+import com.intellij.psi.tree.TokenSet;
 import com.intellij.psi.util.PsiTreeUtil;
 import com.intellij.util.ObjectUtils;
 import com.intellij.util.containers.MultiMap;
@@ -47,25 +49,40 @@ public class AngularJS2IndexingHandler extends FrameworkIndexingHandler {
   public static final String DECORATORS = "adei";
   public static final String DECORATE = "__decorate";
 
+  private enum DecoratorKind {DIRECTIVE, PIPE, MODULE}
+
+  private static final Map<String, DecoratorKind> DECORATOR_KINDS = new HashMap<>();
+
+  // elements between a literal argument of __decorate(...) and the call itself
+  private static final TokenSet DECORATE_ARGUMENT_CONTAINERS =
+    TokenSet.create(JSElementTypes.ARGUMENT_LIST, JSElementTypes.ARRAY_LITERAL_EXPRESSION, JSElementTypes.PARENTHESIZED_EXPRESSION);
+
   static {
     JSImplicitElement.ourUserStringsRegistry.registerUserString(DECORATORS);
+
+    DECORATOR_KINDS.put("Directive", DecoratorKind.DIRECTIVE);
+    DECORATOR_KINDS.put("DirectiveAnnotation", DecoratorKind.DIRECTIVE);
+    DECORATOR_KINDS.put("Component", DecoratorKind.DIRECTIVE);
+    DECORATOR_KINDS.put("ComponentAnnotation", DecoratorKind.DIRECTIVE);
+    DECORATOR_KINDS.put("Pipe", DecoratorKind.PIPE);
+    DECORATOR_KINDS.put("NgModule", DecoratorKind.MODULE);
   }
 
   @Override
   public void processCallExpression(JSCallExpression callExpression, @NotNull JSElementIndexingData outData) {
     final JSExpression expression = callExpression.getMethodExpression();
     if (expression instanceof JSReferenceExpression) {
-      final String name = ((JSReferenceExpression)expression).getReferenceName();
-      if (isDirective(name)) {
+      final DecoratorKind kind = getDecoratorKind(((JSReferenceExpression)expression).getReferenceName());
+      if (kind == DecoratorKind.DIRECTIVE) {
         addImplicitElement(callExpression, (JSElementIndexingDataImpl)outData, getPropertyName(callExpression, SELECTOR));
       }
-      if (isPipe(name)) {
+      else if (kind == DecoratorKind.PIPE) {
         addPipe(callExpression, (JSElementIndexingDataImpl)outData, getPropertyName(callExpression, NAME));
       }
-      if (isModule(name)) {
+      else if (kind == DecoratorKind.MODULE) {
         addImplicitElementToModules(callExpression, (JSElementIndexingDataImpl)outData, determineModuleName(callExpression));
       }
-     }
+    }
   }
 
   @Nullable
@@ -147,8 +164,7 @@ public class AngularJS2IndexingHandler extends FrameworkIndexingHandler {
     if (ref != null){
       final ASTNode name = ref.getLastChildNode();
       if (name != null && name.getElementType() == JSTokenTypes.IDENTIFIER) {
-        final String referencedName = name.getText();
-        return isDirective(referencedName) || isPipe(referencedName) || isModule(referencedName);
+        return DECORATOR_KINDS.containsKey(name.getText());
       }
     }
     return false;
@@ -324,16 +340,16 @@ public class AngularJS2IndexingHandler extends FrameworkIndexingHandler {
   }
 
   public static boolean isDirective(@Nullable String name) {
-    return "Directive".equals(name) || "DirectiveAnnotation".equals(name) ||
-           "Component".equals(name) || "ComponentAnnotation".equals(name);
+    return getDecoratorKind(name) == DecoratorKind.DIRECTIVE;
   }
 
   public static boolean isModule(@Nullable String name) {
-    return "NgModule".equals(name);
+    return getDecoratorKind(name) == DecoratorKind.MODULE;
   }
 
-  private static boolean isPipe(@Nullable String name) {
-    return "Pipe".equals(name);
+  @Nullable
+  private static DecoratorKind getDecoratorKind(@Nullable String name) {
+    return name != null ? DECORATOR_KINDS.get(name) : null;
   }
 
   @Override
@@ -391,9 +407,16 @@ public class AngularJS2IndexingHandler extends FrameworkIndexingHandler {
     return new JSLiteralImplicitElementCustomProvider() {
       @Override
       public boolean checkIfCandidate(@NotNull ASTNode literalExpression) {
-        ASTNode parent = TreeUtil.findParent(literalExpression, JSStubElementTypes.CALL_EXPRESSION);
-        LeafElement leaf = parent != null ? TreeUtil.findFirstLeaf(parent) : null;
-        return leaf != null && leaf.getText().startsWith(DECORATE);
+        // called for every literal while stubs are built: only element types are checked, no PSI is created
+        for (ASTNode parent = literalExpression.getTreeParent(); parent != null; parent = parent.getTreeParent()) {
+          final IElementType type = parent.getElementType();
+          if (type == JSStubElementTypes.CALL_EXPRESSION) {
+            LeafElement leaf = TreeUtil.findFirstLeaf(parent);
+            return leaf != null && StringUtil.startsWith(leaf.getChars(), DECORATE);
+          }
+          if (!DECORATE_ARGUMENT_CONTAINERS.contains(type)) return false;
+        }
+        return false;
       }
 
       @Override
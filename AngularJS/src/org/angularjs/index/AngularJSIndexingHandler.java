@@ -63,6 +63,8 @@ public class AngularJSIndexingHandler extends FrameworkIndexingHandler {
   private static final Map<String, PairProcessor<JSProperty, JSElementIndexingData>> CUSTOM_PROPERTY_PROCESSORS = new HashMap<>();
   private final static Map<String, Function<String, List<String>>> POLY_NAME_CONVERTERS = new HashMap<>();
   private final static Map<String, Processor<JSArgumentList>> ARGUMENT_LIST_CHECKERS = new HashMap<>();
+  // method name -> qualifier of calls which get their own stubs, e.g. $stateProvider.state(...)
+  private static final Map<String, String> STUBBED_CALLS = new HashMap<>();
 
   public static final Set<String> INTERESTING_METHODS = new HashSet<>();
   public static final Set<String> INJECTABLE_METHODS = new HashSet<>();
@@ -154,6 +156,9 @@ public class AngularJSIndexingHandler extends FrameworkIndexingHandler {
     // do NOT split module names by dot
     POLY_NAME_CONVERTERS.put(MODULE, Collections::singletonList);
     ARGUMENT_LIST_CHECKERS.put(MODULE, list -> list.getArguments().length > 1);
+
+    STUBBED_CALLS.put(STATE, "$stateProvider");
+    STUBBED_CALLS.put(MODULE, "angular");
   }
 
   static final String RESTRICT = "@restrict";
@@ -238,7 +243,7 @@ public class AngularJSIndexingHandler extends FrameworkIndexingHandler {
   @Override
   public void processCallExpression(JSCallExpression callExpression, @NotNull JSElementIndexingData outData) {
     final JSReferenceExpression reference = ObjectUtils.tryCast(callExpression.getMethodExpression(), JSReferenceExpression.class);
-    if (reference == null) return;
+    if (reference == null || !STUBBED_CALLS.containsKey(reference.getReferenceName())) return;
     if (JSSymbolUtil.isAccurateReferenceExpressionName(reference, "$stateProvider", STATE)) {
       final JSExpression[] arguments = callExpression.getArguments();
       if (arguments.length == 1 && arguments[0] instanceof JSReferenceExpression) {
@@ -258,10 +263,12 @@ public class AngularJSIndexingHandler extends FrameworkIndexingHandler {
     if (methodExpression == null) return false;
 
     final ASTNode referencedNameElement = methodExpression.getLastChildNode();
+    final String expectedQualifier = referencedNameElement != null ? STUBBED_CALLS.get(referencedNameElement.getText()) : null;
+    if (expectedQualifier == null) return false;
     final ASTNode qualifier = JSReferenceExpressionImpl.getQualifierNode(methodExpression);
-    if (qualifier == null) return false;
-    return STATE.equals(referencedNameElement.getText()) && "$stateProvider".equalsIgnoreCase(qualifier.getText()) ||
-           MODULE.equals(referencedNameElement.getText()) && "angular".equalsIgnoreCase(qualifier.getText());
+    // qualifiers are often long call chains, don't build their text unless it can match
+    return qualifier != null && qualifier.getTextLength() == expectedQualifier.length() &&
+           expectedQualifier.equalsIgnoreCase(qualifier.getText());
   }
 
   @Nullable
@@ -281,6 +288,7 @@ public class AngularJSIndexingHandler extends FrameworkIndexingHandler {
     }
     final String command = ((JSReferenceExpression)methodExpression).getReferenceName();
     final PairProcessor<JSProperty, JSElementIndexingData> customProcessor = CUSTOM_PROPERTY_PROCESSORS.get(command);
+    if (customProcessor == null && !INDEXERS.containsKey(command)) return outData;
     JSElementIndexingData localOutData;
     if (customProcessor != null && customProcessor.process(property,
                                                            (localOutData = (outData == null ? new JSElementIndexingDataImpl() : outData)))) {
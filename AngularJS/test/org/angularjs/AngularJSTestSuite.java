@@ -37,6 +37,7 @@ public class AngularJSTestSuite {
     testSuite.addTestSuite(DirectiveRenameTest.class);
     testSuite.addTestSuite(ContextTest.class);
     testSuite.addTestSuite(AngularUiRouterTest.class);
+    testSuite.addTestSuite(AngularDirectivesModelTest.class);
 
     return testSuite;
   }
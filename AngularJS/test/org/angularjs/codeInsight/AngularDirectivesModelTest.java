@@ -0,0 +1,24 @@
+package org.angularjs.codeInsight;
+
+import com.intellij.psi.PsiDocumentManager;
+import com.intellij.testFramework.fixtures.LightPlatformCodeInsightFixtureTestCase;
+
+public class AngularDirectivesModelTest extends LightPlatformCodeInsightFixtureTestCase {
+  public void testNotRebuiltOnMarkupChange() {
+    myFixture.configureByText("index.html", "<div><caret></div>");
+    final AngularDirectivesModel model = AngularDirectivesModel.getInstance(getProject());
+
+    myFixture.type("<span class=\"a\">text</span>");
+    PsiDocumentManager.getInstance(getProject()).commitAllDocuments();
+    assertSame(model, AngularDirectivesModel.getInstance(getProject()));
+  }
+
+  public void testRebuiltOnScriptChange() {
+    myFixture.configureByText("app.js", "angular.module('app', []).directive('myDir', function() {<caret>});");
+    final AngularDirectivesModel model = AngularDirectivesModel.getInstance(getProject());
+
+    myFixture.type("return {};");
+    PsiDocumentManager.getInstance(getProject()).commitAllDocuments();
+    assertNotSame(model, AngularDirectivesModel.getInstance(getProject()));
+  }
+}
@@ -1,8 +1,15 @@
 package org.angularjs.performance;
 
+import com.intellij.lang.javascript.JavascriptLanguage;
+import com.intellij.openapi.util.io.FileUtil;
+import com.intellij.psi.PsiFileFactory;
+import com.intellij.psi.impl.source.PsiFileImpl;
 import com.intellij.testFramework.PlatformTestUtil;
 import com.intellij.testFramework.fixtures.LightPlatformCodeInsightFixtureTestCase;
 import org.angularjs.AngularTestUtil;
+import org.angularjs.codeInsight.AttributesTest;
+
+import java.io.File;
 
 /**
  * @author Konstantin.Ulitin
@@ -19,4 +26,15 @@ public class AngularJSPerformanceTest extends LightPlatformCodeInsightFixtureTes
     PlatformTestUtil.startPerformanceTest(getTestName(false), 60000, () -> myFixture.checkHighlighting()).attempts(1).usesAllCPUCores().assertTiming();
   }
 
+  public void testIndexingCompiledBundle() throws Exception {
+    final String text = FileUtil.loadFile(new File(AngularTestUtil.getBaseTestDataPath(AttributesTest.class) +
+                                                   "attributes/angular4_compiled.umd.js"));
+    final PsiFileFactory factory = PsiFileFactory.getInstance(getProject());
+    PlatformTestUtil.startPerformanceTest(getTestName(false), 3000, () -> {
+      for (int i = 0; i < 5; i++) {
+        final PsiFileImpl file = (PsiFileImpl)factory.createFileFromText("angular4_compiled.umd.js", JavascriptLanguage.INSTANCE, text);
+        assertNotNull(file.calcStubTree());
+      }
+    }).attempts(3).assertTiming();
+  }
 }
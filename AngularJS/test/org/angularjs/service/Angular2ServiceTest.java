@@ -5,8 +5,11 @@ import com.intellij.execution.ExecutionException;
 import com.intellij.lang.typescript.compiler.TypeScriptCompilerSettings;
 import com.intellij.lang.typescript.compiler.languageService.TypeScriptLanguageServiceUtil;
 import com.intellij.openapi.Disposable;
+import com.intellij.openapi.command.WriteCommandAction;
+import com.intellij.openapi.editor.Document;
 import com.intellij.openapi.project.Project;
 import com.intellij.openapi.util.Disposer;
+import com.intellij.psi.PsiDocumentManager;
 import com.intellij.testFramework.fixtures.CodeInsightFixtureTestCase;
 import org.angularjs.AngularTestUtil;
 
@@ -101,4 +104,20 @@ public class Angular2ServiceTest extends CodeInsightFixtureTestCase {
   public void testSimpleHighlightHtml() throws IOException {
     defaultTest(".html");
   }
+
+  public void testHtmlErrorsUpdatedAfterChange() throws IOException {
+    defaultTest(".html");
+    if (skipTests) {
+      return;
+    }
+
+    WriteCommandAction.runWriteCommandAction(getProject(), () -> {
+      final Document document = myFixture.getEditor().getDocument();
+      final int offset = document.getText().indexOf("title1");
+      document.replaceString(offset, offset + "title1".length(), "title");
+    });
+    PsiDocumentManager.getInstance(getProject()).commitAllDocuments();
+    // the diagnostics of the template are computed again, not taken from the cache of the previous pass
+    myFixture.checkHighlighting();
+  }
 }
@@ -0,0 +1,23 @@
+import {Component} from '@angular/core';
+import { NgModule } from '@angular/core';
+
+@Component({
+    selector: 'my-HtmlErrorsUpdatedAfterChange',
+    templateUrl: 'HtmlErrorsUpdatedAfterChange.html',
+})
+export class AppComponent {
+    title: number = 1;
+}
+
+let <error>z1111</error>:number = "";
+
+
+
+@NgModule({
+    declarations: [
+        AppComponent,
+    ],
+    providers: [],
+    bootstrap: [AppComponent]
+})
+export class AppModule { }
\ No newline at end of file
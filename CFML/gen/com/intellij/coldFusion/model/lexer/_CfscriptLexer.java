@@ -9,7 +9,6 @@ import com.intellij.coldFusion.model.lexer.CfscriptTokenTypes;
 import com.intellij.coldFusion.model.lexer.CfmlTokenTypes;
 import com.intellij.coldFusion.model.CfmlUtil;
 import com.intellij.util.containers.Stack;
-import com.intellij.util.ArrayUtil;
 
 
 /**
@@ -1203,7 +1202,7 @@ class _CfscriptLexer implements FlexLexer {
             // lookahead expression with fixed lookahead length
             zzMarkedPos = Character.offsetByCodePoints
                 (zzBufferL/*, zzStartRead, zzEndRead - zzStartRead*/, zzMarkedPos, -1);
-            { if (ArrayUtil.find(CfmlUtil.getVariableScopes(myProject), yytext().toString().toLowerCase()) != -1) {
+            { if (CfmlUtil.isVariableScope(yytext().toString().toLowerCase(), myProject)) {
         return CfscriptTokenTypes.SCOPE_KEYWORD;
     } else {
         return CfscriptTokenTypes.IDENTIFIER;
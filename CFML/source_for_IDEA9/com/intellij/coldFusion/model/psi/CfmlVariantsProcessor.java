@@ -29,9 +29,7 @@ import com.intellij.psi.scope.PsiScopeProcessor;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
-import java.util.LinkedHashSet;
-import java.util.Locale;
-import java.util.Set;
+import java.util.*;
 
 import static com.intellij.psi.PsiModifier.*;
 import static com.intellij.util.containers.ContainerUtil.addIfNotNull;
@@ -201,6 +199,19 @@ public abstract class CfmlVariantsProcessor<T> extends BaseScopeProcessor {
     return true;
   }
 
+  /**
+   * @return lower-cased names of declarations that may be accepted by this processor, <code>null</code> if any name fits (completion)
+   */
+  @Nullable
+  Collection<String> getAcceptedNames() {
+    if (myIsForCompletion) return null;
+    final String name = myReferenceName.toLowerCase(Locale.ENGLISH);
+    if (myIsMethodCall && (name.startsWith("get") || name.startsWith("set"))) {
+      return Arrays.asList(name, name.substring(3));
+    }
+    return Collections.singletonList(name);
+  }
+
   private int methodCallArity() {
     if (!myIsMethodCall) return 0;
     final CfmlArgumentList argumentList = ((CfmlFunctionCall)myElement.getParent()).findArgumentList();
@@ -238,8 +238,7 @@ public class CfmlUtil {
   }
 
   public static boolean isPredefinedFunction(String functionName, Project project) {
-    return ArrayUtil.find(CfmlLangInfo.getInstance(anyProject(project)).getPredefinedFunctionsInLowCase(), functionName.toLowerCase()) !=
-           -1;
+    return CfmlLangInfo.getInstance(anyProject(project)).isPredefinedFunctionLowCase(functionName.toLowerCase());
   }
 
   public static boolean isPredefinedTagVariables(CfmlReferenceExpression cfmlRef, Project project) {
@@ -284,6 +283,10 @@ public class CfmlUtil {
     return CfmlLangInfo.getInstance(anyProject(project)).getVariableScopes();
   }
 
+  public static boolean isVariableScope(String scopeNameInLowCase, Project project) {
+    return CfmlLangInfo.getInstance(anyProject(project)).isVariableScopeLowCase(scopeNameInLowCase);
+  }
+
   @NotNull
   public static String getFileName(PsiElement element) {
     final String fileName = element.getContainingFile().getName();
@@ -20,9 +20,9 @@ import com.intellij.coldFusion.model.CfmlLanguage;
 import com.intellij.openapi.components.ServiceManager;
 import com.intellij.openapi.diagnostic.Logger;
 import com.intellij.openapi.project.Project;
-import com.intellij.openapi.util.Comparing;
 import com.intellij.openapi.util.text.StringUtil;
-import com.intellij.reference.SoftReference;
+import com.intellij.util.ConcurrencyUtil;
+import com.intellij.util.containers.ContainerUtil;
 import com.intellij.util.text.LineReader;
 import org.jetbrains.annotations.Nullable;
 import org.xml.sax.InputSource;
@@ -30,17 +30,21 @@ import org.xml.sax.XMLReader;
 import org.xml.sax.helpers.XMLReaderFactory;
 
 import java.io.InputStream;
-import java.lang.ref.Reference;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentMap;
 
 /**
  * @author vnikolaenko
  */
 public class CfmlLangInfo {
   private final Project myProject;
-  private Reference<CfmlLangDictionary> myCFDictionary;
-  private String myCFDictionaryLevel;
+
+  // dictionaries are read from plugin resources, so they are shared by all projects and are never dropped: language level switches and
+  // completion after GC must not wait for the tags XML to be parsed again
+  private static final ConcurrentMap<String, CfmlLangDictionary> ourDictionaries = ContainerUtil.newConcurrentMap();
 
   public static CfmlLangInfo getInstance(Project project) {
     return ServiceManager.getService(project, CfmlLangInfo.class);
@@ -71,6 +75,8 @@ public class CfmlLangInfo {
       myPredefinedFunctions = cfmlTagsParser.getFunctionsList();
       myPredefinedFunctionsInLowCase = cfmlTagsParser.getFunctionsListLowerCased();
       myPredefinedVariables = cfmlTagsParser.getPredefinedVariables();
+      myPredefinedFunctionsInLowCaseSet = ContainerUtil.newTroveSet(myPredefinedFunctionsInLowCase);
+      myVariableScopesSet = myVariableScopes != null ? ContainerUtil.newTroveSet(myVariableScopes) : Collections.emptySet();
     }
 
     public String[] myPredefinedFunctions;
@@ -79,26 +85,16 @@ public class CfmlLangInfo {
     public String[] myVariableScopes;
     public Map<String, CfmlTagDescription> myTagAttributes;
     public Map<String, CfmlFunctionDescription> myFunctionParameters;
+    private Set<String> myPredefinedFunctionsInLowCaseSet = Collections.emptySet();
+    private Set<String> myVariableScopesSet = Collections.emptySet();
   }
 
   private CfmlLangDictionary getProjectDictionary() {
-    String languageLevel = getLanguageLevel();
-    CfmlLangDictionary dictionary;
-
-    if (Comparing.equal(myCFDictionaryLevel, languageLevel)) {
-      dictionary = SoftReference.dereference(myCFDictionary);
-      if (dictionary != null) return dictionary;
-    }
-
-    synchronized (CfmlLangInfo.class) {
-      dictionary = SoftReference.dereference(myCFDictionary);
-      if (dictionary == null || !Comparing.equal(myCFDictionaryLevel, languageLevel)) {
-        dictionary = new CfmlLangDictionary("scopes.txt", languageLevel);
-        myCFDictionary = new SoftReference<>(dictionary);
-        myCFDictionaryLevel = languageLevel;
-      }
+    final String languageLevel = getLanguageLevel();
+    CfmlLangDictionary dictionary = ourDictionaries.get(languageLevel);
+    if (dictionary == null) {
+      dictionary = ConcurrencyUtil.cacheOrGet(ourDictionaries, languageLevel, new CfmlLangDictionary("scopes.txt", languageLevel));
     }
-
     return dictionary;
   }
 
@@ -127,6 +123,14 @@ public class CfmlLangInfo {
     return getProjectDictionary().myVariableScopes;
   }
 
+  public boolean isPredefinedFunctionLowCase(String functionNameInLowCase) {
+    return getProjectDictionary().myPredefinedFunctionsInLowCaseSet.contains(functionNameInLowCase);
+  }
+
+  public boolean isVariableScopeLowCase(String scopeNameInLowCase) {
+    return getProjectDictionary().myVariableScopesSet.contains(scopeNameInLowCase);
+  }
+
   public Map<String, CfmlTagDescription> getTagAttributes() {
     return getProjectDictionary().myTagAttributes;
   }
@@ -20,6 +20,7 @@ import com.intellij.lexer.FlexAdapter;
 import com.intellij.lexer.Lexer;
 import com.intellij.lexer.MergingLexerAdapter;
 import com.intellij.openapi.project.Project;
+import com.intellij.openapi.util.Comparing;
 import com.intellij.psi.tree.IElementType;
 import com.intellij.psi.tree.TokenSet;
 import org.jetbrains.annotations.NotNull;
@@ -31,7 +32,10 @@ import org.jetbrains.annotations.NotNull;
 public class CfmlLexer extends MergingLexerAdapter {
   private static final int LEXER_STATE_LIMIT = 0xFFFF;
   private Lexer myCfscriptLexer = null;
-  private int myStartPosition = 0;
+  // created once and restarted for every script region: templates have a #...# expression on nearly every line;
+  // recreated when the project language level changes, since it selects the flex lexer
+  private Lexer myReusableCfscriptLexer = null;
+  private String myReusableCfscriptLexerLevel = null;
   private Project myProject;
   private final _CfmlLexer.CfmlLexerConfiguration myConfiguration;
 
@@ -90,16 +94,20 @@ public class CfmlLexer extends MergingLexerAdapter {
     if (super.getTokenType() == CfmlElementTypes.CF_SCRIPT ||
         super.getTokenType() == CfmlTokenTypes.SCRIPT_EXPRESSION) {
       final int startPosition = super.getTokenStart();
-      myStartPosition = startPosition;
       int endPosition = super.getTokenEnd();
       while (super.getTokenType() == CfmlTokenTypes.SCRIPT_EXPRESSION ||
              super.getTokenType() == CfmlElementTypes.CF_SCRIPT) {
         endPosition = super.getTokenEnd();
         super.advance();
       }
-      myCfscriptLexer = new CfscriptLexer(myProject);
-      myCfscriptLexer.start(super.getBufferSequence().subSequence(startPosition, endPosition),
-                            0, endPosition - startPosition, myCfscriptLexer.getState());
+      final String languageLevel = CfscriptLexer.getLanguageLevel(myProject);
+      if (myReusableCfscriptLexer == null || !Comparing.equal(languageLevel, myReusableCfscriptLexerLevel)) {
+        myReusableCfscriptLexer = new CfscriptLexer(myProject, languageLevel);
+        myReusableCfscriptLexerLevel = languageLevel;
+      }
+      myCfscriptLexer = myReusableCfscriptLexer;
+      // lexing the range of the original buffer gives absolute token offsets without copying the script text
+      myCfscriptLexer.start(super.getBufferSequence(), startPosition, endPosition, 0);
       return myCfscriptLexer.getTokenType();
     }
     return super.getTokenType();
@@ -108,7 +116,7 @@ public class CfmlLexer extends MergingLexerAdapter {
   @Override
   public int getTokenStart() {
     if (myCfscriptLexer != null) {
-      return myCfscriptLexer.getTokenStart() + myStartPosition;
+      return myCfscriptLexer.getTokenStart();
     }
     return super.getTokenStart();
   }
@@ -116,7 +124,7 @@ public class CfmlLexer extends MergingLexerAdapter {
   @Override
   public int getTokenEnd() {
     if (myCfscriptLexer != null) {
-      return myCfscriptLexer.getTokenEnd() + myStartPosition;
+      return myCfscriptLexer.getTokenEnd();
     }
     return super.getTokenEnd();
   }
@@ -30,11 +30,18 @@ import com.intellij.psi.tree.TokenSet;
 public class CfscriptLexer extends MergingLexerAdapter {
 
   public CfscriptLexer(Project project) {
-    super(new FlexAdapter(getFlexLexer(project)), TokenSet.EMPTY);
+    this(project, getLanguageLevel(project));
   }
 
-  private static FlexLexer getFlexLexer(Project project) {
-    final String projectLangLevel = project == null ? CfmlLanguage.CF10 : CfmlLangInfo.getInstance(project).getLanguageLevel();
-    return CfmlLanguage.CF8.equals(projectLangLevel) ? new _CfscriptLexer8(project) : new _CfscriptLexer(project);
+  CfscriptLexer(Project project, String languageLevel) {
+    super(new FlexAdapter(getFlexLexer(project, languageLevel)), TokenSet.EMPTY);
+  }
+
+  static String getLanguageLevel(Project project) {
+    return project == null ? CfmlLanguage.CF10 : CfmlLangInfo.getInstance(project).getLanguageLevel();
+  }
+
+  private static FlexLexer getFlexLexer(Project project, String languageLevel) {
+    return CfmlLanguage.CF8.equals(languageLevel) ? new _CfscriptLexer8(project) : new _CfscriptLexer(project);
   }
 }
\ No newline at end of file
@@ -38,6 +38,9 @@ import com.intellij.psi.*;
 import com.intellij.psi.impl.source.resolve.ResolveCache;
 import com.intellij.psi.search.GlobalSearchScope;
 import com.intellij.psi.search.GlobalSearchScopes;
+import com.intellij.psi.util.CachedValueProvider;
+import com.intellij.psi.util.CachedValuesManager;
+import com.intellij.psi.util.PsiModificationTracker;
 import com.intellij.psi.util.PsiTreeUtil;
 import com.intellij.util.Function;
 import com.intellij.util.IncorrectOperationException;
@@ -50,7 +53,9 @@ import org.jetbrains.annotations.Nullable;
 import javax.swing.*;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.ConcurrentMap;
 
 /**
  * @author vnikolaenko
@@ -161,64 +166,7 @@ public class CfmlComponentReference extends CfmlCompositeElement implements Cfml
     }
 
     if (result.isEmpty()) {
-      String componentName = getComponentName(componentQualifiedName);
-
-      int i = componentQualifiedName.lastIndexOf(".");
-      String directoryName;
-      if (i == -1) {
-        directoryName = "";
-      }
-      else {
-        directoryName = componentQualifiedName.substring(0, i);
-      }
-
-      CfmlProjectConfiguration.State state = CfmlProjectConfiguration.getInstance(project).getState();
-      CfmlMappingsConfig mappings = state != null ? state.getMapps().clone() : new CfmlMappingsConfig();
-      adjustMappingsIfEmpty(mappings, originalFile.getProject());
-      // addFakeMappingsForResolution(mappings);
-      List<String> realPossiblePaths = mappings.mapVirtualToReal(directoryName);
-      // Collections.sort(realPossiblePaths);
-
-      final Collection<CfmlComponent> components = CfmlIndex.getInstance(project).getComponentsByName(
-        componentName);
-      components.addAll(CfmlIndex.getInstance(project).getInterfacesByName(
-        componentName));
-
-      for (CfmlComponent component : components) {
-        PsiDirectory parent = component.getContainingFile().getParent();
-        if (parent == null) {
-          continue;
-        }
-        VirtualFile virtualFile = parent.getVirtualFile();
-        for (String realPath : realPossiblePaths) {
-          if (FileUtil.toSystemIndependentName(realPath).equals(FileUtil.toSystemIndependentName(virtualFile.getPresentableUrl()))) {
-            result.add(component);
-            break;
-          }
-        }
-      }
-
-      for (String realPath : realPossiblePaths) {
-        VirtualFile fileByUrl = LocalFileSystem.getInstance().findFileByPath(realPath);
-        if (fileByUrl != null) {
-          PsiFile file = PsiManager.getInstance(project).findFile(fileByUrl);
-          if (file != null) {
-            PsiDirectory directory = file.getParent();
-            if (directory != null) {
-              GlobalSearchScope searchScope = GlobalSearchScopes.directoryScope(directory, false);
-
-              final Collection<CfmlComponent> componentsFromGlobalScope = CfmlIndex.getInstance(project).getComponentsByNameInScope(
-                componentName, searchScope);
-              componentsFromGlobalScope.addAll(CfmlIndex.getInstance(project).getInterfacesByNameInScope(
-                componentName, searchScope));
-
-              for (CfmlComponent component : componentsFromGlobalScope) {
-                result.add(component);
-              }
-            }
-          }
-        }
-      }
+      result.addAll(getComponentsByMappedPath(componentQualifiedName, project));
     }
 
     if (result.isEmpty()) {
@@ -237,19 +185,104 @@ public class CfmlComponentReference extends CfmlCompositeElement implements Cfml
     return result;
   }
 
-  private final ResolveCache.PolyVariantResolver<CfmlComponentReference> MY_RESOLVER =
+  /**
+   * Components found in the directories the dotted path of <code>componentQualifiedName</code> is mapped to. Unlike directory and
+   * import based lookup this does not depend on the referencing file, so results are kept in a project-wide
+   * qualified name to components map until PSI, roots or CFML mappings change.
+   */
+  @NotNull
+  private static List<CfmlComponent> getComponentsByMappedPath(@NotNull final String componentQualifiedName,
+                                                               @NotNull final Project project) {
+    final ConcurrentMap<String, List<CfmlComponent>> cache = CachedValuesManager.getManager(project).getCachedValue(project, () ->
+      CachedValueProvider.Result.create(ContainerUtil.<String, List<CfmlComponent>>newConcurrentMap(),
+                                        PsiModificationTracker.MODIFICATION_COUNT,
+                                        ProjectRootManager.getInstance(project),
+                                        CfmlProjectConfiguration.getInstance(project)));
+    List<CfmlComponent> result = cache.get(componentQualifiedName);
+    if (result == null) {
+      result = Collections.unmodifiableList(findComponentsByMappedPath(componentQualifiedName, project));
+      cache.put(componentQualifiedName, result);
+    }
+    return result;
+  }
+
+  @NotNull
+  private static List<CfmlComponent> findComponentsByMappedPath(@NotNull String componentQualifiedName, @NotNull Project project) {
+    List<CfmlComponent> result = new ArrayList<>();
+    String componentName = getComponentName(componentQualifiedName);
+
+    int i = componentQualifiedName.lastIndexOf(".");
+    String directoryName;
+    if (i == -1) {
+      directoryName = "";
+    }
+    else {
+      directoryName = componentQualifiedName.substring(0, i);
+    }
+
+    CfmlProjectConfiguration.State state = CfmlProjectConfiguration.getInstance(project).getState();
+    CfmlMappingsConfig mappings = state != null ? state.getMapps().clone() : new CfmlMappingsConfig();
+    adjustMappingsIfEmpty(mappings, project);
+    // addFakeMappingsForResolution(mappings);
+    List<String> realPossiblePaths = mappings.mapVirtualToReal(directoryName);
+    // Collections.sort(realPossiblePaths);
+
+    final Collection<CfmlComponent> components = CfmlIndex.getInstance(project).getComponentsByName(
+      componentName);
+    components.addAll(CfmlIndex.getInstance(project).getInterfacesByName(
+      componentName));
+
+    for (CfmlComponent component : components) {
+      PsiDirectory parent = component.getContainingFile().getParent();
+      if (parent == null) {
+        continue;
+      }
+      VirtualFile virtualFile = parent.getVirtualFile();
+      for (String realPath : realPossiblePaths) {
+        if (FileUtil.toSystemIndependentName(realPath).equals(FileUtil.toSystemIndependentName(virtualFile.getPresentableUrl()))) {
+          result.add(component);
+          break;
+        }
+      }
+    }
+
+    for (String realPath : realPossiblePaths) {
+      VirtualFile fileByUrl = LocalFileSystem.getInstance().findFileByPath(realPath);
+      if (fileByUrl != null) {
+        PsiFile file = PsiManager.getInstance(project).findFile(fileByUrl);
+        if (file != null) {
+          PsiDirectory directory = file.getParent();
+          if (directory != null) {
+            GlobalSearchScope searchScope = GlobalSearchScopes.directoryScope(directory, false);
+
+            final Collection<CfmlComponent> componentsFromGlobalScope = CfmlIndex.getInstance(project).getComponentsByNameInScope(
+              componentName, searchScope);
+            componentsFromGlobalScope.addAll(CfmlIndex.getInstance(project).getInterfacesByNameInScope(
+              componentName, searchScope));
+
+            for (CfmlComponent component : componentsFromGlobalScope) {
+              result.add(component);
+            }
+          }
+        }
+      }
+    }
+    return result;
+  }
+
+  private static final ResolveCache.PolyVariantResolver<CfmlComponentReference> MY_RESOLVER =
     new ResolveCache.PolyVariantResolver<CfmlComponentReference>() {
       @NotNull
       public ResolveResult[] resolve(@NotNull final CfmlComponentReference expression, final boolean incompleteCode) {
         String componentQualifiedName;
         CfmlImport parentOfType = PsiTreeUtil.getParentOfType(expression, CfmlImport.class);
         if (parentOfType != null) {
-          componentQualifiedName = getText();
+          componentQualifiedName = expression.getText();
         }
         else {
-          componentQualifiedName = getComponentQualifiedName(getText());
+          componentQualifiedName = expression.getComponentQualifiedName(expression.getText());
         }
-        PsiFile containingFile = getContainingFile();
+        PsiFile containingFile = expression.getContainingFile();
         containingFile = containingFile == null ? null : containingFile.getOriginalFile();
         if (containingFile instanceof CfmlFile) {
           return CfmlResolveResult.create(resolveFromQualifiedName(componentQualifiedName, ((CfmlFile)containingFile)));
@@ -262,13 +295,7 @@ public class CfmlComponentReference extends CfmlCompositeElement implements Cfml
   public ResolveResult[] multiResolve(boolean incompleteCode) {
     // incompleteCode = true, when autocompletion is executed,
     // in this case, containingFile is not physical and there is no way to get parent directory
-    return MY_RESOLVER.resolve(this, incompleteCode);
-    // if(incompleteCode)
-    // return (getManager()).getResolveCache().resolveWithCaching(this, MY_RESOLVER, true, false);
-    /*
-    else
-      return MY_RESOLVER.resolve(this, incompleteCode);
-    */
+    return ResolveCache.getInstance(getProject()).resolveWithCaching(this, MY_RESOLVER, true, incompleteCode);
   }
 
   private static String getComponentName(@NotNull String componentName) {
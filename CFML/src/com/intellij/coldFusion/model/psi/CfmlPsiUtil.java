@@ -15,6 +15,7 @@
  */
 package com.intellij.coldFusion.model.psi;
 
+import com.intellij.coldFusion.UI.config.CfmlProjectConfiguration;
 import com.intellij.coldFusion.model.CfmlLanguage;
 import com.intellij.coldFusion.model.files.CfmlFile;
 import com.intellij.coldFusion.model.files.CfmlFileType;
@@ -25,19 +26,21 @@ import com.intellij.coldFusion.model.psi.impl.CfmlNamedAttributeImpl;
 import com.intellij.coldFusion.model.psi.impl.CfmlTagScriptImpl;
 import com.intellij.lang.ASTNode;
 import com.intellij.openapi.project.Project;
+import com.intellij.openapi.roots.ProjectRootManager;
+import com.intellij.openapi.util.Key;
 import com.intellij.openapi.util.TextRange;
 import com.intellij.psi.*;
 import com.intellij.psi.scope.PsiScopeProcessor;
 import com.intellij.psi.search.GlobalSearchScope;
-import com.intellij.psi.util.PsiTreeUtil;
+import com.intellij.psi.util.*;
+import com.intellij.util.SmartList;
 import com.intellij.util.containers.HashSet;
+import gnu.trove.THashMap;
+import gnu.trove.THashSet;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
-import java.util.Collection;
-import java.util.LinkedList;
-import java.util.List;
-import java.util.Set;
+import java.util.*;
 
 /**
  * Created by Lera Nikolaenko
@@ -92,6 +95,12 @@ public class CfmlPsiUtil {
                                             @NotNull final ResolveState state,
                                             @Nullable final PsiElement lastParent,
                                             @NotNull final PsiElement currentElement) {
+    final Collection<String> acceptedNames =
+      processor instanceof CfmlVariantsProcessor ? ((CfmlVariantsProcessor)processor).getAcceptedNames() : null;
+    if (acceptedNames != null) {
+      return processDeclarations(processor, state, lastParent, currentElement, acceptedNames);
+    }
+
     PsiElement element = (lastParent == null ? currentElement.getLastChild() : lastParent.getPrevSibling());
     do {
       if (element instanceof PsiNamedElement && !(element instanceof CfmlFunction)) { // functions are processed separately
@@ -130,6 +139,114 @@ public class CfmlPsiUtil {
     return true;
   }
 
+  /**
+   * Resolve walks up the tree and processes all preceding declarations on each level, which makes highlighting of big templates
+   * quadratic. When the processor accepts only some names, the declarations with these names are looked up in the table of the
+   * level instead, and processed in the order of the walk.
+   */
+  private static boolean processDeclarations(@NotNull PsiScopeProcessor processor,
+                                             @NotNull ResolveState state,
+                                             @Nullable PsiElement lastParent,
+                                             @NotNull PsiElement currentElement,
+                                             @NotNull Collection<String> acceptedNames) {
+    final PsiElement owner = lastParent == null ? currentElement : lastParent.getParent();
+    if (owner == null) return true;
+    final Map<String, List<Declaration>> declarations = getDeclarations(owner);
+    final List<Declaration> candidates = new ArrayList<>();
+    for (String name : acceptedNames) {
+      final List<Declaration> named = declarations.get(name);
+      if (named != null) {
+        candidates.addAll(named);
+      }
+    }
+    if (acceptedNames.size() > 1) {
+      Collections.sort(candidates, (d1, d2) -> d1.myOrder - d2.myOrder);
+    }
+
+    final int lastParentOffset = lastParent == null ? -1 : lastParent.getStartOffsetInParent();
+    for (Declaration declaration : candidates) {
+      if (lastParent != null && (declaration.mySibling == lastParent ||
+                                 declaration.mySibling.getStartOffsetInParent() > lastParentOffset)) {
+        continue;
+      }
+      if (!processor.execute(declaration.myElement, state)) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private static final Key<CachedValue<Map<String, List<Declaration>>>> DECLARATIONS_KEY = Key.create("cfml.declarations");
+
+  /**
+   * @return declarations {@link #processDeclarations} passes to a processor for the children of <code>owner</code>, by lower-cased
+   * name, each list in the order of the walk
+   */
+  @NotNull
+  private static Map<String, List<Declaration>> getDeclarations(@NotNull final PsiElement owner) {
+    return CachedValuesManager.getManager(owner.getProject()).getCachedValue(owner, DECLARATIONS_KEY, () -> {
+      final Map<String, List<Declaration>> result = new THashMap<>();
+      collectDeclarations(owner, null, result, new int[1]);
+      return CachedValueProvider.Result.create(result, PsiModificationTracker.MODIFICATION_COUNT);
+    }, false);
+  }
+
+  private static void collectDeclarations(@NotNull PsiElement owner,
+                                          @Nullable PsiElement sibling,
+                                          @NotNull Map<String, List<Declaration>> result,
+                                          @NotNull int[] order) {
+    for (PsiElement element = owner.getLastChild(); element != null; element = element.getPrevSibling()) {
+      final PsiElement ownerSibling = sibling != null ? sibling : element;
+      if (element instanceof PsiNamedElement && !(element instanceof CfmlFunction)) {
+        addDeclaration(element, ownerSibling, result, order);
+      }
+      else if (element instanceof CfmlTag) {
+        if (!(element instanceof CfmlFunction)) {
+          final PsiElement psiElement = ((CfmlTag)element).getDeclarativeElement();
+          if (psiElement != null) {
+            addDeclaration(psiElement, ownerSibling, result, order);
+          }
+          if (OUR_TRANSPARENT_FUNCTIONS.contains(((CfmlTag)element).getTagName())) {
+            collectDeclarations(element, ownerSibling, result, order);
+          }
+        }
+      }
+      else if (element instanceof CfmlAssignmentExpression) {
+        final CfmlVariable assignedVariable = ((CfmlAssignmentExpression)element).getAssignedVariable();
+        if (assignedVariable != null) {
+          addDeclaration(assignedVariable, ownerSibling, result, order);
+        }
+      }
+    }
+  }
+
+  private static void addDeclaration(@NotNull PsiElement element,
+                                     @NotNull PsiElement sibling,
+                                     @NotNull Map<String, List<Declaration>> result,
+                                     @NotNull int[] order) {
+    final String name = element instanceof PsiNamedElement ? ((PsiNamedElement)element).getName() : null;
+    if (name == null) return;
+    List<Declaration> declarations = result.get(name.toLowerCase(Locale.ENGLISH));
+    if (declarations == null) {
+      declarations = new SmartList<>();
+      result.put(name.toLowerCase(Locale.ENGLISH), declarations);
+    }
+    declarations.add(new Declaration(element, sibling, order[0]++));
+  }
+
+  private static class Declaration {
+    private final PsiElement myElement;
+    // child of the owner the declaration is in
+    private final PsiElement mySibling;
+    private final int myOrder;
+
+    private Declaration(@NotNull PsiElement element, @NotNull PsiElement sibling, int order) {
+      myElement = element;
+      mySibling = sibling;
+      myOrder = order;
+    }
+  }
+
   @Nullable
   public static CfmlTypedElement getTypedQualifierInner(PsiElement element) {
     if (element == null) {
@@ -318,29 +435,63 @@ public class CfmlPsiUtil {
     T get(V v);
   }
 
-  private static <Result extends PsiNamedElement> Result[] componentHierarchyGatherer(CfmlComponent component,
-                                                                                      Getter<Result[], CfmlComponent> gatherer,
-                                                                                      Result[] EMPTY_ARRAY, boolean isSuperPriority) {
-    CfmlComponent currentComponent = isSuperPriority ? component.getSuper() : component;
-    Set<String> names = new HashSet<>();
-    List<Result> result = new LinkedList<>();
-    while (currentComponent != null) {
-      for (Result candidate : gatherer.get(currentComponent)) {
-        if (names.add(candidate.getName())) {
-          result.add(candidate);
-        }
+  private static final Key<CachedValue<List<CfmlComponent>>> SUPER_COMPONENTS_KEY = Key.create("cfml.super.components");
+  private static final Key<CachedValue<CfmlFunction[]>> FUNCTIONS_KEY = Key.create("cfml.functions.with.supers");
+  private static final Key<CachedValue<CfmlFunction[]>> SUPER_FIRST_FUNCTIONS_KEY = Key.create("cfml.super.first.functions");
+  private static final Key<CachedValue<CfmlProperty[]>> PROPERTIES_KEY = Key.create("cfml.properties.with.supers");
+  private static final Key<CachedValue<CfmlProperty[]>> SUPER_FIRST_PROPERTIES_KEY = Key.create("cfml.super.first.properties");
+
+  /**
+   * @return components <code>component</code> extends, nearest first. The chain is resolved once and kept until PSI, roots or
+   * CFML mappings change; a cyclic <code>extends</code> chain is cut at the first repeated component.
+   */
+  @NotNull
+  public static List<CfmlComponent> getSuperComponents(@NotNull final CfmlComponent component) {
+    return CachedValuesManager.getManager(component.getProject()).getCachedValue(component, SUPER_COMPONENTS_KEY, () -> {
+      final List<CfmlComponent> result = new ArrayList<>();
+      final Set<CfmlComponent> visited = new THashSet<>();
+      visited.add(component);
+      CfmlComponent currentComponent = component.getSuper();
+      while (currentComponent != null && visited.add(currentComponent)) {
+        result.add(currentComponent);
+        currentComponent = currentComponent.getSuper();
       }
-      currentComponent = currentComponent.getSuper();
-    }
-    if (isSuperPriority) {
-      currentComponent = component;
-      for (Result candidate : gatherer.get(currentComponent)) {
-        if (names.add(candidate.getName())) {
-          result.add(candidate);
+      return CachedValueProvider.Result.create(Collections.unmodifiableList(result), getHierarchyDependencies(component));
+    }, false);
+  }
+
+  private static Object[] getHierarchyDependencies(@NotNull CfmlComponent component) {
+    final Project project = component.getProject();
+    return new Object[]{PsiModificationTracker.MODIFICATION_COUNT, ProjectRootManager.getInstance(project),
+      CfmlProjectConfiguration.getInstance(project)};
+  }
+
+  private static <Result extends PsiNamedElement> Result[] componentHierarchyGatherer(final CfmlComponent component,
+                                                                                      final Getter<Result[], CfmlComponent> gatherer,
+                                                                                      final Result[] EMPTY_ARRAY,
+                                                                                      boolean isSuperPriority,
+                                                                                      Key<CachedValue<Result[]>> key) {
+    return CachedValuesManager.getManager(component.getProject()).getCachedValue(component, key, () -> {
+      final List<CfmlComponent> hierarchy = new ArrayList<>();
+      if (!isSuperPriority) {
+        hierarchy.add(component);
+      }
+      hierarchy.addAll(getSuperComponents(component));
+      if (isSuperPriority) {
+        hierarchy.add(component);
+      }
+
+      Set<String> names = new HashSet<>();
+      List<Result> result = new ArrayList<>();
+      for (CfmlComponent currentComponent : hierarchy) {
+        for (Result candidate : gatherer.get(currentComponent)) {
+          if (names.add(candidate.getName())) {
+            result.add(candidate);
+          }
         }
       }
-    }
-    return result.toArray(EMPTY_ARRAY);
+      return CachedValueProvider.Result.create(result.toArray(EMPTY_ARRAY), getHierarchyDependencies(component));
+    }, false);
   }
 
   @NotNull
@@ -350,7 +501,7 @@ public class CfmlPsiUtil {
       public CfmlFunction[] get(CfmlComponent component) {
         return component.getFunctions();
       }
-    }, CfmlFunction.EMPTY_ARRAY, isSuperPriority);
+    }, CfmlFunction.EMPTY_ARRAY, isSuperPriority, isSuperPriority ? SUPER_FIRST_FUNCTIONS_KEY : FUNCTIONS_KEY);
   }
 
   @NotNull
@@ -360,7 +511,7 @@ public class CfmlPsiUtil {
       public CfmlProperty[] get(CfmlComponent component) {
         return component.getProperties();
       }
-    }, CfmlProperty.EMPTY_ARRAY, isSuperPriority);
+    }, CfmlProperty.EMPTY_ARRAY, isSuperPriority, isSuperPriority ? SUPER_FIRST_PROPERTIES_KEY : PROPERTIES_KEY);
   }
 
   public static boolean processGlobalVariablesForComponent(CfmlComponent component,
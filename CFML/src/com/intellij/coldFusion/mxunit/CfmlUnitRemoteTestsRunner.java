@@ -33,11 +33,13 @@ import org.apache.commons.httpclient.HttpClient;
 import org.apache.commons.httpclient.HttpMethod;
 import org.apache.commons.httpclient.HttpStatus;
 import org.apache.commons.httpclient.methods.GetMethod;
+import org.jetbrains.annotations.NotNull;
 
 import java.io.*;
 
 public class CfmlUnitRemoteTestsRunner {
   private static final Logger LOG = Logger.getInstance(CfmlUnitRemoteTestsRunner.class.getName());
+  private static final int MAX_BATCH_LENGTH = 64 * 1024;
 
   public static String getLauncherText(String resourcePath) {
     try {
@@ -114,6 +116,81 @@ public class CfmlUnitRemoteTestsRunner {
            ".cfc";
   }
 
+  /**
+   * Streams test results produced by the MXUnit launcher at <code>agentUrl</code> to <code>processHandler</code>.
+   *
+   * @return number of non-empty lines received
+   */
+  public static int retrieveTestResults(@NotNull String agentUrl, @NotNull ProcessHandler processHandler) {
+    BufferedReader reader = null;
+    HttpMethod method = null;
+    int lineCount = 0;
+    final long start = System.currentTimeMillis();
+    try {
+      LOG.debug("Retrieving test results from: " + agentUrl);
+      HttpClient client = new HttpClient();
+      method = new GetMethod(agentUrl);
+      int statusCode = client.executeMethod(method);
+      if (statusCode != HttpStatus.SC_OK) {
+        LOG.debug("Http request failed: " + method.getStatusLine());
+        processHandler.notifyTextAvailable("Http request failed: " + method.getStatusLine(), ProcessOutputTypes.SYSTEM);
+      }
+      final InputStream responseStream = method.getResponseBodyAsStream();
+      reader = new BufferedReader(new InputStreamReader(responseStream));
+      lineCount = readTestResults(reader, processHandler);
+    }
+    catch (IOException e) {
+      LOG.warn(e);
+      processHandler
+        .notifyTextAvailable("Failed to retrieve test results from the server at " + agentUrl + "\n", ProcessOutputTypes.SYSTEM);
+    }
+    finally {
+      if (method != null) {
+        method.releaseConnection();
+      }
+      if (reader != null) {
+        try {
+          reader.close();
+        }
+        catch (IOException e) {
+          // ignore
+        }
+      }
+    }
+    if (LOG.isDebugEnabled()) {
+      final long time = Math.max(System.currentTimeMillis() - start, 1);
+      LOG.debug("MXUnit: " + lineCount + " lines received in " + time + " ms, " + lineCount * 1000L / time + " lines/s");
+    }
+    return lineCount;
+  }
+
+  /**
+   * Lines that have already arrived are passed to the process handler as one chunk instead of one notification per line;
+   * the test events converter still handles each service message separately. A line is never held back waiting for more output.
+   */
+  private static int readTestResults(@NotNull BufferedReader reader, @NotNull ProcessHandler processHandler) throws IOException {
+    final StringBuilder batch = new StringBuilder();
+    int lineCount = 0;
+    String line;
+    while (!processHandler.isProcessTerminating() && !processHandler.isProcessTerminated() && (line = reader.readLine()) != null) {
+      if (!StringUtil.isEmptyOrSpaces(line)) {
+        if (LOG.isDebugEnabled()) {
+          LOG.debug("MXUnit: " + line);
+        }
+        batch.append(line).append('\n');
+        lineCount++;
+      }
+      if (batch.length() > 0 && (batch.length() >= MAX_BATCH_LENGTH || !reader.ready())) {
+        processHandler.notifyTextAvailable(batch.toString(), ProcessOutputTypes.SYSTEM);
+        batch.setLength(0);
+      }
+    }
+    if (batch.length() > 0) {
+      processHandler.notifyTextAvailable(batch.toString(), ProcessOutputTypes.SYSTEM);
+    }
+    return lineCount;
+  }
+
   public static void executeScript(final CfmlUnitRunnerParameters params,
                                    final ProcessHandler processHandler/*final String webPath,
                                    final String componentFilePath,
@@ -149,7 +226,6 @@ public class CfmlUnitRemoteTestsRunner {
         }
         String agentPath = webPath.substring(0, webPath.lastIndexOf('/')) + "/" + launcherFileName;
         LOG.debug("Retrieving data from coldfusion server by " + agentPath + " URL");
-        BufferedReader reader = null;
         String agentUrl;
         if (params.getScope() == CfmlUnitRunnerParameters.Scope.Directory) {
           agentUrl = agentPath + "?method=executeDirectory&directoryName=" + componentFile.getName();
@@ -160,49 +236,7 @@ public class CfmlUnitRemoteTestsRunner {
             agentUrl += "&methodName=" + params.getMethod();
           }
         }
-        HttpMethod method = null;
-        try {
-          LOG.debug("Retrieving test results from: " + agentUrl);
-          /*
-          final FileObject httpFile = getManager().resolveFile(agentUrl);
-
-          reader = new BufferedReader(new InputStreamReader(httpFile.getContent().getInputStream()));
-          */
-          HttpClient client = new HttpClient();
-          method = new GetMethod(agentUrl);
-          int statusCode = client.executeMethod(method);
-          if (statusCode != HttpStatus.SC_OK) {
-            LOG.debug("Http request failed: " + method.getStatusLine());
-            processHandler.notifyTextAvailable("Http request failed: " + method.getStatusLine(), ProcessOutputTypes.SYSTEM);
-          }
-          final InputStream responseStream = method.getResponseBodyAsStream();
-          reader = new BufferedReader(new InputStreamReader(responseStream));
-          String line;
-          while (!processHandler.isProcessTerminating() && !processHandler.isProcessTerminated() && (line = reader.readLine()) != null) {
-            if (!StringUtil.isEmptyOrSpaces(line)) {
-              LOG.debug("MXUnit: " + line);
-              processHandler.notifyTextAvailable(line + "\n", ProcessOutputTypes.SYSTEM);
-            }
-          }
-        }
-        catch (IOException e) {
-          LOG.warn(e);
-          processHandler
-            .notifyTextAvailable("Failed to retrieve test results from the server at " + agentUrl + "\n", ProcessOutputTypes.SYSTEM);
-        }
-        finally {
-          if (method != null) {
-            method.releaseConnection();
-          }
-          if (reader != null) {
-            try {
-              reader.close();
-            }
-            catch (IOException e) {
-              // ignore
-            }
-          }
-        }
+        retrieveTestResults(agentUrl, processHandler);
         LOG.debug("Cleaning temporary files");
         deleteFile(project, directory.findChild(launcherFileName));
         deleteFile(project, directory.findChild(resultsFileName));
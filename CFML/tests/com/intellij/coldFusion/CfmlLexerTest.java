@@ -19,6 +19,7 @@ import com.intellij.coldFusion.model.lexer.CfmlLexer;
 import com.intellij.lexer.Lexer;
 import com.intellij.psi.tree.IElementType;
 import com.intellij.testFramework.LexerTestCase;
+import com.intellij.testFramework.PlatformTestUtil;
 import org.jetbrains.annotations.NotNull;
 
 import java.io.IOException;
@@ -98,6 +99,22 @@ public class CfmlLexerTest extends LexerTestCase {
     assertEquals(tokenType, lexer.getTokenType());
   }
 
+  public void testLexingPerformance() {
+    final StringBuilder text = new StringBuilder();
+    for (int i = 0; i < 3000; i++) {
+      text.append("<cfoutput>#item").append(i).append("# costs #getPrice(").append(i).append(")#</cfoutput>\n");
+      text.append("<cfset total = total + #amount").append(i).append("#>\n");
+      text.append("<cfscript>\n  var value").append(i).append(" = compute(").append(i).append(", 'text');\n</cfscript>\n");
+    }
+    final Lexer lexer = createLexer();
+    PlatformTestUtil.startPerformanceTest("CFML lexing", 2000, () -> {
+      lexer.start(text);
+      while (lexer.getTokenType() != null) {
+        lexer.advance();
+      }
+    }).assertTiming();
+  }
+
   @Override
   protected Lexer createLexer() {
     return new CfmlLexer(true, null);
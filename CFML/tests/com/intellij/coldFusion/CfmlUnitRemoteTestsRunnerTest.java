@@ -0,0 +1,117 @@
+/*
+ * Copyright 2000-2017 JetBrains s.r.o.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.intellij.coldFusion;
+
+import com.intellij.coldFusion.mxunit.CfmlUnitRemoteTestsRunner;
+import com.intellij.execution.process.ProcessAdapter;
+import com.intellij.execution.process.ProcessEvent;
+import com.intellij.execution.process.ProcessHandler;
+import com.intellij.openapi.util.Key;
+import com.intellij.openapi.util.io.FileUtil;
+import com.intellij.openapi.util.text.StringUtil;
+import com.intellij.testFramework.UsefulTestCase;
+import com.intellij.util.containers.ContainerUtil;
+import com.sun.net.httpserver.HttpServer;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.File;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+/**
+ * Runs {@link CfmlUnitRemoteTestsRunner#retrieveTestResults} against a local HTTP server that replays recorded MXUnit output
+ * the way the ColdFusion launcher sends it: in small flushed chunks.
+ */
+public class CfmlUnitRemoteTestsRunnerTest extends UsefulTestCase {
+  private static final int SUITE_REPEATS = 500;
+
+  private HttpServer myServer;
+  private String myRecordedOutput;
+
+  @Override
+  protected void setUp() throws Exception {
+    super.setUp();
+    myRecordedOutput = StringUtil.convertLineSeparators(
+      FileUtil.loadFile(new File(CfmlTestUtil.BASE_TEST_DATA_PATH + "/mxunit/suite.txt")));
+    myServer = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+    myServer.createContext("/mxunit-launcher.cfc", exchange -> {
+      exchange.sendResponseHeaders(200, 0);
+      try (OutputStream out = exchange.getResponseBody()) {
+        final byte[] suite = myRecordedOutput.getBytes(StandardCharsets.UTF_8);
+        for (int i = 0; i < SUITE_REPEATS; i++) {
+          out.write(suite);
+          out.flush();
+        }
+      }
+    });
+    myServer.start();
+  }
+
+  @Override
+  protected void tearDown() throws Exception {
+    try {
+      myServer.stop(0);
+    }
+    finally {
+      super.tearDown();
+    }
+  }
+
+  public void testReplayedSuite() throws Exception {
+    final List<String> chunks = ContainerUtil.createLockFreeCopyOnWriteList();
+    final ProcessHandler handler = new TestProcessHandler();
+    handler.addProcessListener(new ProcessAdapter() {
+      @Override
+      public void onTextAvailable(ProcessEvent event, Key outputType) {
+        chunks.add(event.getText());
+      }
+    });
+
+    final String url = "http://127.0.0.1:" + myServer.getAddress().getPort() + "/mxunit-launcher.cfc?method=executeTestCase";
+    final int lineCount = CfmlUnitRemoteTestsRunner.retrieveTestResults(url, handler);
+
+    final List<String> expectedLines = ContainerUtil.filter(StringUtil.split(myRecordedOutput, "\n"), s -> !StringUtil.isEmptyOrSpaces(s));
+    assertEquals(expectedLines.size() * SUITE_REPEATS, lineCount);
+    assertEquals(StringUtil.repeat(StringUtil.join(expectedLines, "\n") + "\n", SUITE_REPEATS), StringUtil.join(chunks, ""));
+    assertTrue("lines should be passed in batches, got " + chunks.size() + " chunks", chunks.size() < lineCount);
+  }
+
+  private static class TestProcessHandler extends ProcessHandler {
+    @Override
+    protected void destroyProcessImpl() {
+      notifyProcessTerminated(0);
+    }
+
+    @Override
+    protected void detachProcessImpl() {
+      notifyProcessDetached();
+    }
+
+    @Override
+    public boolean detachIsDefault() {
+      return false;
+    }
+
+    @Nullable
+    @Override
+    public OutputStream getProcessInput() {
+      return null;
+    }
+  }
+}
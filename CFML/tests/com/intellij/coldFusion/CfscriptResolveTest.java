@@ -465,6 +465,20 @@ public class CfscriptResolveTest extends JavaCodeInsightFixtureTestCase {
     restoreDefaultState();
   }
 
+  public void testResolveNewAfterMappingsChange() throws Throwable {
+    addComponentsTo(myFixture);
+    final PsiReference reference = myFixture.getReferenceAtCaretPositionWithAssertion(Util.getInputDataFileName(getTestName(true)));
+    assertNull(reference.resolve());
+    setDefaultState();
+    try {
+      assertEquals(assertInstanceOf(reference.resolve(), CfmlComponent.class).getName(), "ComponentName");
+    }
+    finally {
+      restoreDefaultState();
+    }
+    assertNull(reference.resolve());
+  }
+
   public void testResolveNewWithImportWithMappings() throws Throwable {
     addComponentsTo(myFixture);
     setDefaultState();
@@ -28,6 +28,7 @@ import com.intellij.flex.refactoring.*;
 import com.intellij.flex.resolver.ActionScriptResolveTest;
 import com.intellij.flex.resolver.FlexCssNavigationTest;
 import com.intellij.flex.uml.FlashUmlTest;
+import com.intellij.javascript.flex.mxml.schema.InheritedDescriptorMapTest;
 import junit.framework.Test;
 import junit.framework.TestCase;
 import junit.framework.TestSuite;
@@ -89,6 +90,7 @@ public class FlexTestSuite extends TestCase {
     testSuite.addTestSuite(FlexHighlightingPerformanceTest.class);
     testSuite.addTestSuite(FlexHighlightingTest.class);
     testSuite.addTestSuite(FlexScopeTest.class);
+    testSuite.addTestSuite(FlexStyleIndexPerformanceTest.class);
     testSuite.addTestSuite(GlobalFlexHighlightingTest.class);
     testSuite.addTestSuite(SwfHighlightingTest.class);
 
@@ -138,6 +140,9 @@ public class FlexTestSuite extends TestCase {
     //com.intellij.flex.uml.*
     testSuite.addTestSuite(FlashUmlTest.class);
 
+    //com.intellij.javascript.flex.mxml.schema.*
+    testSuite.addTestSuite(InheritedDescriptorMapTest.class);
+
     return testSuite;
   }
 }
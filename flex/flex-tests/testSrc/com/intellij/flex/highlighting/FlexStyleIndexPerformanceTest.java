@@ -0,0 +1,98 @@
+package com.intellij.flex.highlighting;
+
+import com.intellij.flex.util.ActionScriptDaemonAnalyzerTestCase;
+import com.intellij.flex.util.FlexTestUtils;
+import com.intellij.javascript.flex.css.FlexStyleIndex;
+import com.intellij.javascript.flex.css.FlexStyleIndexInfo;
+import com.intellij.javascript.flex.css.FlexStyleIndexInfoExternalizer;
+import com.intellij.lang.javascript.JSTestOption;
+import com.intellij.lang.javascript.JSTestOptions;
+import com.intellij.lang.javascript.flex.FlexModuleType;
+import com.intellij.openapi.module.ModuleType;
+import com.intellij.psi.search.GlobalSearchScope;
+import com.intellij.testFramework.PlatformTestUtil;
+import com.intellij.util.indexing.FileBasedIndex;
+import com.intellij.util.io.DataInputOutputUtil;
+import com.intellij.util.io.IOUtil;
+import com.intellij.util.io.UnsyncByteArrayInputStream;
+import com.intellij.util.io.UnsyncByteArrayOutputStream;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+public class FlexStyleIndexPerformanceTest extends ActionScriptDaemonAnalyzerTestCase {
+  @Override
+  protected void setUpJdk() {
+    FlexTestUtils.setupFlexSdk(myModule, getTestName(false), getClass());
+  }
+
+  @Override
+  protected String getBasePath() {
+    return "";
+  }
+
+  @Override
+  protected String getExtension() {
+    return "as";
+  }
+
+  @JSTestOptions({JSTestOption.WithGumboSdk, JSTestOption.WithFlexFacet})
+  public void testSdkStylesExternalizer() throws Exception {
+    final FileBasedIndex index = FileBasedIndex.getInstance();
+    final GlobalSearchScope scope = GlobalSearchScope.allScope(myProject);
+    final List<Set<FlexStyleIndexInfo>> values = new ArrayList<>();
+    for (String key : index.getAllKeys(FlexStyleIndex.INDEX_ID, myProject)) {
+      values.addAll(index.getValues(FlexStyleIndex.INDEX_ID, key, scope));
+    }
+    assertFalse(values.isEmpty());
+
+    final UnsyncByteArrayOutputStream bytes = new UnsyncByteArrayOutputStream();
+    final DataOutputStream out = new DataOutputStream(bytes);
+    for (Set<FlexStyleIndexInfo> value : values) {
+      FlexStyleIndexInfoExternalizer.INSTANCE.save(out, value);
+    }
+    out.close();
+    final byte[] data = bytes.toByteArray();
+    final int legacySize = getLegacySize(values);
+    assertTrue(data.length + " >= " + legacySize, data.length < legacySize);
+
+    final List<Set<FlexStyleIndexInfo>> loaded = new ArrayList<>(values.size());
+    PlatformTestUtil.startPerformanceTest("Flex style index loading", 500, () -> {
+      loaded.clear();
+      final DataInputStream in = new DataInputStream(new UnsyncByteArrayInputStream(data));
+      for (int i = 0; i < values.size(); i++) {
+        loaded.add(FlexStyleIndexInfoExternalizer.INSTANCE.read(in));
+      }
+    }).assertTiming();
+
+    assertEquals(values, loaded);
+  }
+
+  // size of the same values written by the former externalizer, which stored every string with writeUTF
+  private static int getLegacySize(@NotNull List<Set<FlexStyleIndexInfo>> values) throws IOException {
+    final UnsyncByteArrayOutputStream bytes = new UnsyncByteArrayOutputStream();
+    final DataOutputStream out = new DataOutputStream(bytes);
+    for (Set<FlexStyleIndexInfo> value : values) {
+      DataInputOutputUtil.writeINT(out, value.size());
+      for (FlexStyleIndexInfo info : value) {
+        for (String s : new String[]{info.getClassOrFileName(), info.getAttributeName(), info.getInherit(), info.getType(),
+          info.getArrayType(), info.getFormat(), info.getEnumeration()}) {
+          IOUtil.writeUTF(out, s != null ? s : "");
+        }
+        out.writeBoolean(info.isInClass());
+      }
+    }
+    out.close();
+    return bytes.size();
+  }
+
+  @Override
+  protected ModuleType getModuleType() {
+    return FlexModuleType.getInstance();
+  }
+}
@@ -0,0 +1,115 @@
+package com.intellij.javascript.flex.mxml.schema;
+
+import junit.framework.TestCase;
+
+import java.util.HashMap;
+import java.util.Map;
+
+public class InheritedDescriptorMapTest extends TestCase {
+
+  public void testShadowing() {
+    final InheritedDescriptorMap<String> parent = new InheritedDescriptorMap<>();
+    parent.put("width", "parent width");
+    parent.put("height", "parent height");
+
+    final InheritedDescriptorMap<String> child = new InheritedDescriptorMap<>(parent);
+    child.put("width", "child width");
+    child.put("label", "child label");
+
+    assertEquals("child width", child.get("width"));
+    assertEquals("parent height", child.get("height"));
+    assertEquals(map("width", "child width", "height", "parent height", "label", "child label"), new HashMap<>(child));
+    assertEquals(3, child.size());
+    assertEquals("parent width", parent.get("width"));
+    assertEquals(2, parent.size());
+  }
+
+  public void testRemoveInherited() {
+    final InheritedDescriptorMap<String> parent = new InheritedDescriptorMap<>();
+    parent.put("width", "parent width");
+    parent.put("height", "parent height");
+
+    final InheritedDescriptorMap<String> child = new InheritedDescriptorMap<>(parent);
+    assertEquals("parent width", child.remove("width"));
+
+    assertNull(child.get("width"));
+    assertFalse(child.containsKey("width"));
+    assertEquals(map("height", "parent height"), new HashMap<>(child));
+    assertEquals("parent width", parent.get("width"));
+
+    child.put("width", "child width");
+    assertEquals(map("width", "child width", "height", "parent height"), new HashMap<>(child));
+  }
+
+  public void testAddAfterInheritance() {
+    final InheritedDescriptorMap<String> parent = new InheritedDescriptorMap<>();
+    parent.put("width", "parent width");
+
+    final InheritedDescriptorMap<String> child = new InheritedDescriptorMap<>(parent);
+    final InheritedDescriptorMap<String> grandChild = new InheritedDescriptorMap<>(child);
+    assertEquals(1, grandChild.size());
+
+    // e.g. a predefined "id" descriptor added to an already inherited table
+    parent.put("id", "parent id");
+    parent.remove("width");
+    child.put("label", "child label");
+
+    assertEquals(map("id", "parent id"), new HashMap<>(parent));
+    assertEquals(map("width", "parent width", "label", "child label"), new HashMap<>(child));
+    assertEquals(map("width", "parent width"), new HashMap<>(grandChild));
+    assertNull(grandChild.get("id"));
+    assertNull(grandChild.get("label"));
+  }
+
+  public void testIsEmpty() {
+    final InheritedDescriptorMap<String> parent = new InheritedDescriptorMap<>();
+    final InheritedDescriptorMap<String> child = new InheritedDescriptorMap<>(parent);
+    assertTrue(child.isEmpty());
+
+    parent.put("width", "parent width");
+    final InheritedDescriptorMap<String> grandChild = new InheritedDescriptorMap<>(new InheritedDescriptorMap<>(parent));
+    assertFalse(grandChild.isEmpty());
+
+    grandChild.remove("width");
+    assertTrue(grandChild.isEmpty());
+    grandChild.put("label", "grand child label");
+    assertFalse(grandChild.isEmpty());
+  }
+
+  public void testEntriesAreReadOnly() {
+    final InheritedDescriptorMap<String> parent = new InheritedDescriptorMap<>();
+    parent.put("width", "parent width");
+    final InheritedDescriptorMap<String> child = new InheritedDescriptorMap<>(parent);
+
+    try {
+      child.entrySet().iterator().next().setValue("changed");
+      fail();
+    }
+    catch (UnsupportedOperationException ignored) {
+    }
+    assertEquals("parent width", parent.get("width"));
+  }
+
+  public void testClear() {
+    final InheritedDescriptorMap<String> parent = new InheritedDescriptorMap<>();
+    parent.put("width", "parent width");
+    final InheritedDescriptorMap<String> child = new InheritedDescriptorMap<>(parent);
+    child.put("label", "child label");
+
+    child.clear();
+    assertTrue(child.isEmpty());
+    assertNull(child.get("width"));
+    assertEquals("parent width", parent.get("width"));
+
+    parent.clear();
+    assertTrue(parent.isEmpty());
+  }
+
+  private static Map<String, String> map(String... keysAndValues) {
+    final Map<String, String> result = new HashMap<>();
+    for (int i = 0; i < keysAndValues.length; i += 2) {
+      result.put(keysAndValues[i], keysAndValues[i + 1]);
+    }
+    return result;
+  }
+}
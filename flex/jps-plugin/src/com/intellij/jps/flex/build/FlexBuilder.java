@@ -34,13 +34,14 @@ import org.jetbrains.jps.incremental.messages.ProgressMessage;
 import org.jetbrains.jps.model.JpsProject;
 import org.jetbrains.jps.model.library.sdk.JpsSdk;
 import org.jetbrains.jps.model.module.JpsModule;
+import org.jetbrains.jps.service.SharedThreadPool;
 
 import java.io.File;
 import java.io.IOException;
-import java.util.ArrayList;
-import java.util.Collection;
-import java.util.Collections;
-import java.util.List;
+import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
 
 public class FlexBuilder extends TargetBuilder<BuildRootDescriptor, FlexBuildTarget> {
 
@@ -110,7 +111,8 @@ public class FlexBuilder extends TargetBuilder<BuildRootDescriptor, FlexBuildTar
 
     final List<JpsFlexBuildConfiguration> bcsToCompile = getAllBCsToCompile(mainBC);
 
-    if (!FlexCommonUtils.isFlexUnitBC(mainBC) && !isFlexmojosBCWithUpdatedConfigFile(mainBC)) {
+    if ((!FlexCommonUtils.isFlexUnitBC(mainBC) || isFlexUnitLauncherUnchanged(mainBC, context.getProjectDescriptor())) &&
+        !isFlexmojosBCWithUpdatedConfigFile(mainBC)) {
       if (dirtyFilePaths.isEmpty()) {
         boolean outputFilesExist = true;
 
@@ -133,33 +135,142 @@ public class FlexBuilder extends TargetBuilder<BuildRootDescriptor, FlexBuildTar
       }
     }
 
-    for (JpsFlexBuildConfiguration bc : bcsToCompile) {
-      final Status status = compileBuildConfiguration(context, bc, myBuiltInCompilerHandler);
+    final long start = System.currentTimeMillis();
+    final List<Status> statuses = compileBuildConfigurations(context, bcsToCompile, myBuiltInCompilerHandler);
+    LOG.info(buildTarget.getId() + ": " + bcsToCompile.size() + " compilation(s) took " + (System.currentTimeMillis() - start) + " ms");
+
+    // outputs of all compiled BCs are registered before a failed or cancelled one stops the build
+    for (int i = 0; i < bcsToCompile.size(); i++) {
+      final JpsFlexBuildConfiguration bc = bcsToCompile.get(i);
+      if (statuses.get(i) == Status.Ok) {
+        outputConsumer.registerOutputFile(new File(mainBC.getActualOutputFilePath()), dirtyFilePaths);
+        FlexBuilderUtils.performPostCompileActions(context, bc, dirtyFilePaths, outputConsumer);
+        context.processMessage(
+          new CompilerMessage(FlexBuilderUtils.getCompilerName(bc), BuildMessage.Kind.INFO,
+                              FlexCommonBundle.message("compilation.successful")));
+      }
+    }
 
-      switch (status) {
-        case Ok:
-          outputConsumer.registerOutputFile(new File(mainBC.getActualOutputFilePath()), dirtyFilePaths);
-          FlexBuilderUtils.performPostCompileActions(context, bc, dirtyFilePaths, outputConsumer);
-          context.processMessage(
-            new CompilerMessage(FlexBuilderUtils.getCompilerName(bc), BuildMessage.Kind.INFO,
-                                FlexCommonBundle.message("compilation.successful")));
-          break;
+    boolean failed = false;
+    for (int i = 0; i < bcsToCompile.size(); i++) {
+      final JpsFlexBuildConfiguration bc = bcsToCompile.get(i);
+      final Status status = statuses.get(i);
+
+      if (status == Status.Failed) {
+        final String message = bc.getOutputType() == OutputType.Application
+                               ? FlexCommonBundle.message("compilation.failed")
+                               : FlexCommonBundle.message("compilation.failed.dependent.will.be.skipped");
+        context.processMessage(new CompilerMessage(FlexBuilderUtils.getCompilerName(bc), BuildMessage.Kind.INFO, message));
+        failed = true;
+      }
+      else if (status == Status.Cancelled) {
+        context.processMessage(
+          new CompilerMessage(FlexBuilderUtils.getCompilerName(bc), BuildMessage.Kind.INFO,
+                              FlexCommonBundle.message("compilation.cancelled")));
+      }
+    }
 
-        case Failed:
-          final String message = bc.getOutputType() == OutputType.Application
-                                 ? FlexCommonBundle.message("compilation.failed")
-                                 : FlexCommonBundle.message("compilation.failed.dependent.will.be.skipped");
-          context.processMessage(new CompilerMessage(FlexBuilderUtils.getCompilerName(bc), BuildMessage.Kind.INFO, message));
+    if (failed) {
+      throw new StopBuildException();
+    }
+  }
 
-          throw new StopBuildException();
+  /**
+   * The first BC is the main one; runtime loaded modules and runtime stylesheets depend only on it (RLMs may load its link report),
+   * so they are compiled in parallel after it, bounded by the number of cores and by the 'max parallel compilations' setting.
+   * As with sequential compilation, BCs are not started once a compilation fails or is cancelled; the ones being compiled finish.
+   *
+   * @return statuses in the same order as <code>bcs</code>, <code>null</code> for BCs that were not started because another one
+   * failed or was cancelled
+   */
+  private static List<Status> compileBuildConfigurations(final CompileContext context,
+                                                         final List<JpsFlexBuildConfiguration> bcs,
+                                                         final JpsBuiltInFlexCompilerHandler builtInCompilerHandler) {
+    final Status[] statuses = new Status[bcs.size()];
+    statuses[0] = compileBuildConfigurationWithTiming(context, bcs.get(0), builtInCompilerHandler);
+
+    if (statuses[0] != Status.Ok) {
+      return Arrays.asList(statuses);
+    }
 
-        case Cancelled:
-          context.processMessage(
-            new CompilerMessage(FlexBuilderUtils.getCompilerName(bc), BuildMessage.Kind.INFO,
-                                FlexCommonBundle.message("compilation.cancelled")));
-          return;
+    final AtomicInteger nextIndex = new AtomicInteger(1);
+    final Runnable compileNext = () -> {
+      int index;
+      while ((index = nextIndex.getAndIncrement()) < bcs.size()) {
+        final JpsFlexBuildConfiguration bc = bcs.get(index);
+        try {
+          statuses[index] = compileBuildConfigurationWithTiming(context, bc, builtInCompilerHandler);
+        }
+        catch (RuntimeException e) {
+          LOG.warn(e);
+          context.processMessage(new CompilerMessage(FlexBuilderUtils.getCompilerName(bc), BuildMessage.Kind.ERROR, e.toString()));
+          statuses[index] = Status.Failed;
+        }
+        if (statuses[index] != Status.Ok) {
+          nextIndex.set(bcs.size());
+        }
       }
+    };
+
+    final int parallelism = Math.min(bcs.size() - 1, getMaxParallelCompilations(bcs.get(0).getModule().getProject()));
+    if (parallelism <= 1) {
+      compileNext.run();
+      return Arrays.asList(statuses);
+    }
+
+    final List<Future<?>> futures = new ArrayList<>(parallelism);
+    for (int i = 0; i < parallelism; i++) {
+      futures.add(SharedThreadPool.getInstance().executeOnPooledThread(compileNext));
     }
+
+    for (Future<?> future : futures) {
+      try {
+        future.get();
+      }
+      catch (InterruptedException e) {
+        // BCs that have not been started yet are not compiled, the ones being compiled finish on their own
+        nextIndex.set(bcs.size());
+        Thread.currentThread().interrupt();
+        fillMissingStatuses(statuses, Status.Cancelled);
+        break;
+      }
+      catch (ExecutionException e) {
+        // an error, compilation exceptions are reported by the failing BC
+        LOG.error(e.getCause());
+        fillMissingStatuses(statuses, Status.Failed);
+      }
+    }
+    return Arrays.asList(statuses);
+  }
+
+  private static void fillMissingStatuses(final Status[] statuses, final Status status) {
+    for (int i = 1; i < statuses.length; i++) {
+      if (statuses[i] == null) statuses[i] = status;
+    }
+  }
+
+  private static int getMaxParallelCompilations(final JpsProject project) {
+    final int maxParallelCompilations = JpsFlexCompilerProjectExtension.getInstance(project).MAX_PARALLEL_COMPILATIONS;
+    return Math.max(1, Math.min(maxParallelCompilations, Runtime.getRuntime().availableProcessors()));
+  }
+
+  private static Status compileBuildConfigurationWithTiming(final CompileContext context,
+                                                            final JpsFlexBuildConfiguration bc,
+                                                            final JpsBuiltInFlexCompilerHandler builtInCompilerHandler) {
+    final long start = System.currentTimeMillis();
+    final Status status = compileBuildConfiguration(context, bc, builtInCompilerHandler);
+    LOG.info(FlexBuilderUtils.getCompilerName(bc) + ": " + status + " in " + (System.currentTimeMillis() - start) + " ms");
+    return status;
+  }
+
+  /**
+   * FlexUnitPrecompileTask doesn't touch the launcher if the set of tests to run is the same as during previous run
+   */
+  private static boolean isFlexUnitLauncherUnchanged(final JpsFlexBuildConfiguration bc, final ProjectDescriptor projectDescriptor) {
+    final File launcherFile =
+      new File(CompilerConfigGeneratorRt.getPathToFlexUnitMainClass(projectDescriptor, bc.getNature(), bc.getMainClass()));
+    final File outputFile = new File(bc.getActualOutputFilePath());
+    return launcherFile.isFile() && outputFile.lastModified() > launcherFile.lastModified();
   }
 
   /**
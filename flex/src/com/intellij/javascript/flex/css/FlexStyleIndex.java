@@ -30,9 +30,6 @@ import gnu.trove.THashMap;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
-import java.io.DataInput;
-import java.io.DataOutput;
-import java.io.IOException;
 import java.util.Map;
 import java.util.Set;
 
@@ -43,46 +40,7 @@ public class FlexStyleIndex extends FileBasedIndexExtension<String, Set<FlexStyl
 
   public static final ID<String, Set<FlexStyleIndexInfo>> INDEX_ID = ID.create("js.style.index");
 
-  private static final int VERSION = 18;
-
-  private final DataExternalizer<Set<FlexStyleIndexInfo>> myDataExternalizer = new DataExternalizer<Set<FlexStyleIndexInfo>>() {
-
-    @Override
-    public void save(@NotNull DataOutput out, Set<FlexStyleIndexInfo> value) throws IOException {
-      DataInputOutputUtil.writeINT(out, value.size());
-      for (FlexStyleIndexInfo info : value) {
-        writeUTF(out, info.getClassOrFileName());
-        writeUTF(out, info.getAttributeName());
-        writeUTF(out, info.getInherit());
-        writeUTF(out, info.getType());
-        writeUTF(out, info.getArrayType());
-        writeUTF(out, info.getFormat());
-        writeUTF(out, info.getEnumeration());
-        out.writeBoolean(info.isInClass());
-      }
-    }
-
-    @Override
-    public Set<FlexStyleIndexInfo> read(@NotNull DataInput in) throws IOException {
-      int size = DataInputOutputUtil.readINT(in);
-      Set<FlexStyleIndexInfo> result = ContainerUtil.newLinkedHashSet();
-      for (int i = 0; i < size; i++) {
-        String className = readUTF(in);
-        assert className != null;
-        String attributeName = readUTF(in);
-        assert attributeName != null;
-        String inherit = readUTF(in);
-        assert inherit != null;
-        String type = readUTF(in);
-        String arrayType = readUTF(in);
-        String format = readUTF(in);
-        String enumeration = readUTF(in);
-        boolean inClass = in.readBoolean();
-        result.add(new FlexStyleIndexInfo(className, attributeName, inherit, type, arrayType, format, enumeration, inClass));
-      }
-      return result;
-    }
-  };
+  private static final int VERSION = 20;
 
   @NotNull
   @Override
@@ -90,16 +48,6 @@ public class FlexStyleIndex extends FileBasedIndexExtension<String, Set<FlexStyl
     return INDEX_ID;
   }
 
-  @Nullable
-  private static String readUTF(@NotNull DataInput in) throws IOException {
-    String s = IOUtil.readUTF(in);
-    return s.length() == 0 ? null : s;
-  }
-
-  private static void writeUTF(@NotNull DataOutput out, @Nullable String s) throws IOException {
-    IOUtil.writeUTF(out, s != null ? s : "");
-  }
-
   private static <TKey, TValue> void addElement(Map<TKey, Set<TValue>> map, TKey key, TValue value) {
     Set<TValue> list = map.get(key);
     if (list == null) {
@@ -225,7 +173,7 @@ public class FlexStyleIndex extends FileBasedIndexExtension<String, Set<FlexStyl
   @NotNull
   @Override
   public DataExternalizer<Set<FlexStyleIndexInfo>> getValueExternalizer() {
-    return myDataExternalizer;
+    return FlexStyleIndexInfoExternalizer.INSTANCE;
   }
 
   @NotNull
@@ -0,0 +1,129 @@
+package com.intellij.javascript.flex.css;
+
+import com.intellij.util.containers.ContainerUtil;
+import com.intellij.util.io.DataExternalizer;
+import com.intellij.util.io.DataInputOutputUtil;
+import com.intellij.util.io.IOUtil;
+import gnu.trove.TObjectIntHashMap;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Each string field of {@link FlexStyleIndexInfo} is written as a single varint code:
+ * <ul>
+ * <li>0 - <code>null</code> or an empty string, empty strings are read back as <code>null</code></li>
+ * <li>1..COMMON_VALUES.length - one of {@link #COMMON_VALUES}</li>
+ * <li>NEW_STRING - string written inline right after the code, it is added to the string table of the value</li>
+ * <li>greater than NEW_STRING - index in the string table of the value, i.e. a string that already occurred in this set</li>
+ * </ul>
+ * Style values repeat the same handful of inherit, type and format strings, and all infos of one set usually share the class name,
+ * so most fields take one byte.
+ */
+public class FlexStyleIndexInfoExternalizer implements DataExternalizer<Set<FlexStyleIndexInfo>> {
+  public static final FlexStyleIndexInfoExternalizer INSTANCE = new FlexStyleIndexInfoExternalizer();
+
+  // the position of a value is its persistent code, and NEW_STRING depends on the number of values,
+  // so any change to COMMON_VALUES requires FlexStyleIndex version increment
+  private static final String[] COMMON_VALUES = {
+    "no", "yes",
+    "Number", "uint", "int", "String", "Boolean", "Class", "Array", "Object", "Function",
+    "Color", "Length", "Time", "File", "EmbeddedFile", "Number(0.0)",
+    "none", "auto", "left,center,right", "top,middle,bottom", "normal,bold", "normal,italic", "none,underline", "ltr,rtl",
+    "mx.core.IFlexDisplayObject", "mx.core.UIComponent", "flash.text.TextFormat"
+  };
+
+  private static final int NULL = 0;
+  private static final int NEW_STRING = COMMON_VALUES.length + 1;
+
+  private static final TObjectIntHashMap<String> COMMON_VALUE_TO_CODE = new TObjectIntHashMap<>();
+
+  static {
+    for (int i = 0; i < COMMON_VALUES.length; i++) {
+      COMMON_VALUE_TO_CODE.put(COMMON_VALUES[i], i + 1);
+    }
+  }
+
+  @Override
+  public void save(@NotNull DataOutput out, Set<FlexStyleIndexInfo> value) throws IOException {
+    DataInputOutputUtil.writeINT(out, value.size());
+    final TObjectIntHashMap<String> stringTable = new TObjectIntHashMap<>();
+    for (FlexStyleIndexInfo info : value) {
+      writeString(out, info.getClassOrFileName(), stringTable);
+      writeString(out, info.getAttributeName(), stringTable);
+      writeString(out, info.getInherit(), stringTable);
+      writeString(out, info.getType(), stringTable);
+      writeString(out, info.getArrayType(), stringTable);
+      writeString(out, info.getFormat(), stringTable);
+      writeString(out, info.getEnumeration(), stringTable);
+      out.writeBoolean(info.isInClass());
+    }
+  }
+
+  @Override
+  public Set<FlexStyleIndexInfo> read(@NotNull DataInput in) throws IOException {
+    final int size = DataInputOutputUtil.readINT(in);
+    final Set<FlexStyleIndexInfo> result = ContainerUtil.newLinkedHashSet();
+    final List<String> stringTable = new ArrayList<>();
+    for (int i = 0; i < size; i++) {
+      String className = readString(in, stringTable);
+      assert className != null;
+      String attributeName = readString(in, stringTable);
+      assert attributeName != null;
+      String inherit = readString(in, stringTable);
+      assert inherit != null;
+      String type = readString(in, stringTable);
+      String arrayType = readString(in, stringTable);
+      String format = readString(in, stringTable);
+      String enumeration = readString(in, stringTable);
+      boolean inClass = in.readBoolean();
+      result.add(new FlexStyleIndexInfo(className, attributeName, inherit, type, arrayType, format, enumeration, inClass));
+    }
+    return result;
+  }
+
+  private static void writeString(@NotNull DataOutput out, @Nullable String s, @NotNull TObjectIntHashMap<String> stringTable)
+    throws IOException {
+    if (s == null || s.isEmpty()) {
+      DataInputOutputUtil.writeINT(out, NULL);
+      return;
+    }
+
+    final int commonCode = COMMON_VALUE_TO_CODE.get(s);
+    if (commonCode > 0) {
+      DataInputOutputUtil.writeINT(out, commonCode);
+      return;
+    }
+
+    if (stringTable.containsKey(s)) {
+      DataInputOutputUtil.writeINT(out, NEW_STRING + 1 + stringTable.get(s));
+      return;
+    }
+
+    DataInputOutputUtil.writeINT(out, NEW_STRING);
+    IOUtil.writeUTF(out, s);
+    stringTable.put(s, stringTable.size());
+  }
+
+  @Nullable
+  private static String readString(@NotNull DataInput in, @NotNull List<String> stringTable) throws IOException {
+    final int code = DataInputOutputUtil.readINT(in);
+    if (code == NULL) return null;
+    if (code < NEW_STRING) return COMMON_VALUES[code - 1];
+    if (code == NEW_STRING) {
+      final String s = IOUtil.readUTF(in);
+      stringTable.add(s);
+      return s;
+    }
+
+    final int index = code - NEW_STRING - 1;
+    if (index >= stringTable.size()) throw new IOException("Corrupted style index value: string #" + index);
+    return stringTable.get(index);
+  }
+}
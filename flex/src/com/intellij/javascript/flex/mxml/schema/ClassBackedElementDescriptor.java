@@ -501,7 +501,7 @@ public class ClassBackedElementDescriptor extends IconProvider implements XmlEle
       packageToInternalDescriptors = myPackageToInternalDescriptors;
       if (map != null && packageToInternalDescriptors != null) return;
 
-      map = new THashMap<>();
+      map = new InheritedDescriptorMap<>();
       packageToInternalDescriptors = new THashMap<>();
       Set<PsiElement> processedElements = null;
 
@@ -735,7 +735,7 @@ public class ClassBackedElementDescriptor extends IconProvider implements XmlEle
         if (packageName != null) {
           Map<String, AnnotationBackedDescriptor> descriptorMap = packageToInternalDescriptors.get(packageName);
           if (descriptorMap == null) {
-            descriptorMap = new THashMap<>();
+            descriptorMap = new InheritedDescriptorMap<>();
             packageToInternalDescriptors.put(packageName, descriptorMap);
           }
           descriptorMap.put(name, descriptor);
@@ -774,17 +774,22 @@ public class ClassBackedElementDescriptor extends IconProvider implements XmlEle
 
       parentDescriptor.ensureDescriptorsMapsInitialized(clazz, visited);
 
-      map.putAll(parentDescriptor.myDescriptors);
+      // a snapshot of the first super class table is shared as the inherited layer instead of being copied
+      if (!(map instanceof InheritedDescriptorMap) ||
+          !((InheritedDescriptorMap<AnnotationBackedDescriptor>)map).inheritFrom(parentDescriptor.myDescriptors)) {
+        map.putAll(parentDescriptor.myDescriptors);
+      }
 
       for (final Map.Entry<String, Map<String, AnnotationBackedDescriptor>> entry : parentDescriptor.myPackageToInternalDescriptors
         .entrySet()) {
 
         Map<String, AnnotationBackedDescriptor> descriptorMap = packageToInternalDescriptors.get(entry.getKey());
         if (descriptorMap == null) {
-          descriptorMap = new THashMap<>();
-          packageToInternalDescriptors.put(entry.getKey(), descriptorMap);
+          packageToInternalDescriptors.put(entry.getKey(), new InheritedDescriptorMap<>(entry.getValue()));
+        }
+        else {
+          descriptorMap.putAll(entry.getValue());
         }
-        descriptorMap.putAll(entry.getValue());
       }
     }
   }
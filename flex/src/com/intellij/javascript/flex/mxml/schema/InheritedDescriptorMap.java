@@ -0,0 +1,179 @@
+package com.intellij.javascript.flex.mxml.schema;
+
+import gnu.trove.THashMap;
+import gnu.trove.THashSet;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.*;
+
+/**
+ * Descriptor table of a class layered over a snapshot of the table of its super class.
+ * Only own members and overrides are stored, so deep component hierarchies share inherited entries instead of copying them
+ * into every subclass table.
+ * <p/>
+ * A table may still be modified after a subclass has inherited it (see {@link ClassBackedElementDescriptor#addPredefinedMemberDescriptor}),
+ * so the own entries are copied on the first modification after they have been shared; subclasses keep seeing the entries
+ * as they were when inherited. Full reads (size, iteration) use a flattened read-only copy built on first use; it is kept by the
+ * map that was read only, inherited layers are flattened on demand.
+ */
+class InheritedDescriptorMap<V> extends AbstractMap<String, V> {
+  private Map<String, V> myOwn = new THashMap<>();
+  private @Nullable Set<String> myHidden; // inherited keys removed in this layer, e.g. by [Exclude]
+  private @Nullable Layer<V> myParent;
+  private boolean myShared; // myOwn and myHidden are referenced by a subclass snapshot
+  private @Nullable Map<String, V> myFlattened;
+
+  InheritedDescriptorMap() {
+  }
+
+  InheritedDescriptorMap(@Nullable Map<String, V> parent) {
+    if (!inheritFrom(parent) && parent != null) {
+      putAll(parent);
+    }
+  }
+
+  /**
+   * Uses a snapshot of <code>parent</code> as the inherited layer if nothing has been put into this map yet.
+   * @return false if the map already has own entries or a parent, or <code>parent</code> can't be shared; the caller should copy
+   * parent entries then
+   */
+  boolean inheritFrom(@Nullable Map<String, V> parent) {
+    if (parent == null || parent.isEmpty()) return true; // doesn't flatten InheritedDescriptorMap
+    if (myParent != null || !myOwn.isEmpty() || myHidden != null || !(parent instanceof InheritedDescriptorMap)) return false;
+    myParent = ((InheritedDescriptorMap<V>)parent).snapshot();
+    myFlattened = null;
+    return true;
+  }
+
+  @NotNull
+  private Layer<V> snapshot() {
+    myShared = true;
+    return new Layer<>(myOwn, myHidden, myParent);
+  }
+
+  private void beforeModification() {
+    if (myShared) {
+      myOwn = new THashMap<>(myOwn);
+      if (myHidden != null) myHidden = new THashSet<>(myHidden);
+      myShared = false;
+    }
+    myFlattened = null;
+  }
+
+  @Override
+  public V get(Object key) {
+    return Layer.get(myOwn, myHidden, myParent, key);
+  }
+
+  @Override
+  public boolean containsKey(Object key) {
+    return get(key) != null;
+  }
+
+  @Override
+  public V put(String key, V value) {
+    beforeModification();
+    final V previous = get(key);
+    myOwn.put(key, value);
+    if (myHidden != null) myHidden.remove(key);
+    return previous;
+  }
+
+  @Override
+  public V remove(Object key) {
+    beforeModification();
+    final V previous = get(key);
+    myOwn.remove(key);
+    if (myParent != null && myParent.get(key) != null) {
+      if (myHidden == null) myHidden = new THashSet<>();
+      myHidden.add((String)key);
+    }
+    return previous;
+  }
+
+  @Override
+  public void clear() {
+    myOwn = new THashMap<>();
+    myHidden = null;
+    myParent = null;
+    myShared = false;
+    myFlattened = null;
+  }
+
+  @NotNull
+  private Map<String, V> flattened() {
+    Map<String, V> flattened = myFlattened;
+    if (flattened == null) {
+      flattened = Collections.unmodifiableMap(Layer.flatten(myOwn, myHidden, myParent));
+      myFlattened = flattened;
+    }
+    return flattened;
+  }
+
+  @NotNull
+  @Override
+  public Set<Entry<String, V>> entrySet() {
+    return flattened().entrySet();
+  }
+
+  @Override
+  public int size() {
+    return myParent == null ? myOwn.size() : flattened().size();
+  }
+
+  @Override
+  public boolean isEmpty() {
+    return Layer.isEmpty(myOwn, myHidden, myParent);
+  }
+
+  private static class Layer<V> {
+    private final Map<String, V> myOwn;
+    private final @Nullable Set<String> myHidden;
+    private final @Nullable Layer<V> myParent;
+
+    private Layer(@NotNull Map<String, V> own, @Nullable Set<String> hidden, @Nullable Layer<V> parent) {
+      myOwn = own;
+      myHidden = hidden;
+      myParent = parent;
+    }
+
+    private V get(Object key) {
+      return get(myOwn, myHidden, myParent, key);
+    }
+
+    @NotNull
+    private Map<String, V> flatten() {
+      return flatten(myOwn, myHidden, myParent);
+    }
+
+    private boolean isEmpty() {
+      return isEmpty(myOwn, myHidden, myParent);
+    }
+
+    private static <V> V get(@NotNull Map<String, V> own, @Nullable Set<String> hidden, @Nullable Layer<V> parent, Object key) {
+      final V value = own.get(key);
+      if (value != null || parent == null) return value;
+      if (hidden != null && hidden.contains(key)) return null;
+      return parent.get(key);
+    }
+
+    /**
+     * Flattens only if all own entries are removed and some inherited keys are hidden
+     */
+    private static <V> boolean isEmpty(@NotNull Map<String, V> own, @Nullable Set<String> hidden, @Nullable Layer<V> parent) {
+      if (!own.isEmpty()) return false;
+      if (parent == null || parent.isEmpty()) return true;
+      return hidden != null && flatten(own, hidden, parent).isEmpty();
+    }
+
+    @NotNull
+    private static <V> Map<String, V> flatten(@NotNull Map<String, V> own, @Nullable Set<String> hidden, @Nullable Layer<V> parent) {
+      if (parent == null) return new THashMap<>(own);
+      final Map<String, V> result = new THashMap<>(parent.flatten());
+      if (hidden != null) result.keySet().removeAll(hidden);
+      result.putAll(own);
+      return result;
+    }
+  }
+}
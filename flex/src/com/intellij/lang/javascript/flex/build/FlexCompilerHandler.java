@@ -10,7 +10,6 @@ import com.intellij.flex.FlexCommonUtils;
 import com.intellij.lang.javascript.flex.FlexBundle;
 import com.intellij.lang.javascript.flex.FlexModuleType;
 import com.intellij.lang.javascript.flex.FlexUtils;
-import com.intellij.lang.javascript.flex.flexunit.FlexUnitAfterCompileTask;
 import com.intellij.lang.javascript.flex.flexunit.FlexUnitPrecompileTask;
 import com.intellij.lang.javascript.flex.flexunit.FlexUnitRunConfiguration;
 import com.intellij.lang.javascript.flex.projectStructure.model.impl.FlexBuildConfigurationChangeListener;
@@ -180,7 +179,6 @@ public class FlexCompilerHandler extends AbstractProjectComponent {
     if (compilerManager != null) {
       compilerManager.addBeforeTask(new ValidateFlashConfigurationsPrecompileTask());
       compilerManager.addBeforeTask(new FlexUnitPrecompileTask(myProject));
-      compilerManager.addAfterTask(new FlexUnitAfterCompileTask());
 
       compilerManager.setValidationEnabled(FlexModuleType.getInstance(), false);
     }
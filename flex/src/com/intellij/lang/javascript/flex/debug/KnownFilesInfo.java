@@ -1,25 +1,52 @@
 package com.intellij.lang.javascript.flex.debug;
 
 import com.intellij.openapi.util.io.FileUtil;
-import com.intellij.util.containers.BidirectionalMap;
-import gnu.trove.THashMap;
-import gnu.trove.TIntObjectHashMap;
+import com.intellij.util.containers.ContainerUtil;
 import org.jetbrains.annotations.NonNls;
+import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
-import java.util.*;
+import java.util.Collection;
+import java.util.Set;
+import java.util.StringTokenizer;
+import java.util.concurrent.ConcurrentMap;
 
+/**
+ * Lookups are done from breakpoint and stack frame handling while 'show files' output is processed in the debugger thread,
+ * so all maps are concurrent. 'show files' lists all known files each time, lines that have already been processed are skipped.
+ */
 public class KnownFilesInfo {
 
   private final FlexDebugProcess myFlexDebugProcess;
 
-  private boolean myUpToDate = false;
+  private volatile boolean myUpToDate = false;
 
-  private final TIntObjectHashMap<BidirectionalMap<String, String>> myWorkerToFilePathToIdMap =
-    new TIntObjectHashMap<>();
+  private final ConcurrentMap<Integer, WorkerFiles> myWorkerToFiles = ContainerUtil.newConcurrentMap();
+  private final Set<String> myProcessedLines = ContainerUtil.newConcurrentSet();
 
-  private final TIntObjectHashMap<Map<String, Collection<String>>> myWorkerToFileNameToPathsMap =
-    new TIntObjectHashMap<>();
+  private static class WorkerFiles {
+    private final ConcurrentMap<String, String> myFilePathToId = ContainerUtil.newConcurrentMap();
+    private final ConcurrentMap<String, String> myIdToFilePath = ContainerUtil.newConcurrentMap();
+    private final ConcurrentMap<String, Collection<String>> myFileNameToPaths = ContainerUtil.newConcurrentMap();
+
+    private void add(final String id, final String fullPath, final String shortName) {
+      final String oldId = myFilePathToId.put(fullPath, id);
+      if (oldId != null && !oldId.equals(id)) {
+        myIdToFilePath.remove(oldId, fullPath);
+      }
+      myIdToFilePath.putIfAbsent(id, fullPath);
+
+      Collection<String> paths = myFileNameToPaths.get(shortName);
+      if (paths == null) {
+        final Collection<String> newPaths = ContainerUtil.createLockFreeCopyOnWriteList();
+        paths = myFileNameToPaths.putIfAbsent(shortName, newPaths);
+        if (paths == null) paths = newPaths;
+      }
+      if (!paths.contains(fullPath)) {
+        paths.add(fullPath);
+      }
+    }
+  }
 
   public KnownFilesInfo(final FlexDebugProcess flexDebugProcess) {
     myFlexDebugProcess = flexDebugProcess;
@@ -33,36 +60,30 @@ public class KnownFilesInfo {
   public String getFilePathById(final int worker, final String id) {
     ensureUpToDate();
 
-    final BidirectionalMap<String, String> filePathToId = myWorkerToFilePathToIdMap.get(worker);
-    final List<String> paths = filePathToId == null ? null : filePathToId.getKeysByValue(id);
-
-    return paths != null && paths.size() > 0 ? paths.get(0) : null;
+    final WorkerFiles files = myWorkerToFiles.get(worker);
+    return files == null ? null : files.myIdToFilePath.get(id);
   }
 
   @Nullable
   public String getIdByFilePath(final String filePath) {
     ensureUpToDate();
-
-    final int worker = 0; // todo calculate correct worker
-
-    final BidirectionalMap<String, String> filePathToId = myWorkerToFilePathToIdMap.get(worker);
-    return filePathToId == null ? null : filePathToId.get(filePath);
+    return getIdByFilePathNoUpdate(filePath);
   }
 
   @Nullable
   public String getIdByFilePathNoUpdate(final String filePath) {
     final int worker = 0; // todo calculate correct worker
 
-    final BidirectionalMap<String, String> filePathToId = myWorkerToFilePathToIdMap.get(worker);
-    return filePathToId == null ? null : filePathToId.get(filePath);
+    final WorkerFiles files = myWorkerToFiles.get(worker);
+    return files == null ? null : files.myFilePathToId.get(filePath);
   }
 
   @Nullable
   public Collection<String> getPathsByName(final int worker, final String fileName) {
     ensureUpToDate();
 
-    final Map<String, Collection<String>> fileNameToPaths = myWorkerToFileNameToPathsMap.get(worker);
-    return fileNameToPaths == null ? null : fileNameToPaths.get(fileName);
+    final WorkerFiles files = myWorkerToFiles.get(worker);
+    return files == null ? null : files.myFileNameToPaths.get(fileName);
   }
 
   private void ensureUpToDate() {
@@ -85,6 +106,8 @@ public class KnownFilesInfo {
 
     while (tokenizer.hasMoreTokens()) {
       final String line = tokenizer.nextToken().trim();
+      if (!myProcessedLines.add(line)) continue;
+
       final int spaceIndex = line.indexOf(' ');
       final int commaIndex = line.indexOf(", ");
 
@@ -123,31 +146,18 @@ public class KnownFilesInfo {
         }
       }
 
-      BidirectionalMap<String, String> filePathToIdMap = myWorkerToFilePathToIdMap.get(worker);
-      if (filePathToIdMap == null) {
-        filePathToIdMap = new BidirectionalMap<>();
-        myWorkerToFilePathToIdMap.put(worker, filePathToIdMap);
-      }
-      filePathToIdMap.put(fullPath, id);
-
-      Map<String, Collection<String>> fileNameToPaths = myWorkerToFileNameToPathsMap.get(worker);
-      if (fileNameToPaths == null) {
-        fileNameToPaths = new THashMap<>();
-        myWorkerToFileNameToPathsMap.put(worker, fileNameToPaths);
-      }
-      addToMap(fileNameToPaths, shortName, fullPath);
+      getWorkerFiles(worker).add(id, fullPath, shortName);
     }
   }
 
-  private static <K, T> void addToMap(final Map<K, Collection<T>> map, final K key, final T valueCollectionElement) {
-    Collection<T> valueCollection = map.get(key);
-    if (valueCollection == null) {
-      valueCollection = new ArrayList<>(1);
-      map.put(key, valueCollection);
-    }
-
-    if (!valueCollection.contains(valueCollectionElement)) {
-      valueCollection.add(valueCollectionElement);
+  @NotNull
+  private WorkerFiles getWorkerFiles(final int worker) {
+    WorkerFiles files = myWorkerToFiles.get(worker);
+    if (files == null) {
+      final WorkerFiles newFiles = new WorkerFiles();
+      files = myWorkerToFiles.putIfAbsent(worker, newFiles);
+      if (files == null) files = newFiles;
     }
+    return files;
   }
 }
@@ -22,11 +22,16 @@ import com.intellij.openapi.diagnostic.Logger;
 import com.intellij.openapi.module.Module;
 import com.intellij.openapi.project.DumbService;
 import com.intellij.openapi.project.Project;
+import com.intellij.openapi.roots.ProjectRootManager;
 import com.intellij.openapi.util.*;
 import com.intellij.openapi.util.io.FileUtil;
 import com.intellij.openapi.util.text.StringUtil;
 import com.intellij.psi.PsiElement;
 import com.intellij.psi.search.GlobalSearchScope;
+import com.intellij.psi.util.CachedValue;
+import com.intellij.psi.util.CachedValueProvider;
+import com.intellij.psi.util.CachedValuesManager;
+import com.intellij.psi.util.PsiModificationTracker;
 import com.intellij.ui.UIBundle;
 import com.intellij.util.ResourceUtil;
 import gnu.trove.THashSet;
@@ -36,15 +41,11 @@ import java.io.File;
 import java.io.IOException;
 import java.net.URL;
 import java.text.MessageFormat;
-import java.util.ArrayList;
-import java.util.Collection;
-import java.util.Collections;
-import java.util.Set;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 
 public class FlexUnitPrecompileTask implements CompileTask {
 
-  public static final Key<Collection<String>> FILES_TO_DELETE = Key.create("FlexUnitPrecompileTask.filesToRemove");
-
   private final Project myProject;
   private static final String TEST_RUNNER_VAR = "__testRunner";
 
@@ -52,6 +53,9 @@ public class FlexUnitPrecompileTask implements CompileTask {
   private static final int PORTS_ATTEMPT_NUMBER = 20;
   private static final int SWC_POLICY_PORT_START = FLEX_UNIT_PORT_START + PORTS_ATTEMPT_NUMBER;
 
+  private static final Key<CachedValue<Map<String, Collection<Pair<String, Set<String>>>>>> PACKAGE_TEST_CLASSES_KEY =
+    Key.create("FlexUnitPrecompileTask.packageTestClasses");
+
   public FlexUnitPrecompileTask(Project project) {
     myProject = project;
   }
@@ -207,23 +211,7 @@ public class FlexUnitPrecompileTask implements CompileTask {
         final Collection<Pair<String, Set<String>>> classes =
           ApplicationManager.getApplication().runReadAction((NullableComputable<Collection<Pair<String, Set<String>>>>)() -> {
             if (DumbService.getInstance(myProject).isDumb()) return null;
-
-            final Collection<Pair<String, Set<String>>> result = new ArrayList<>();
-            JSPackageIndex
-              .processElementsInScopeRecursive(params.getPackageName(), new JSPackageIndex.PackageQualifiedElementsProcessor() {
-                public boolean process(String qualifiedName, JSPackageIndexInfo.Kind kind, boolean isPublic) {
-                  if (kind == JSPackageIndexInfo.Kind.CLASS) {
-                    PsiElement clazz = ActionScriptClassResolver.findClassByQNameStatic(qualifiedName, moduleScope);
-                    if (clazz instanceof JSClass && support.isTestClass((JSClass)clazz, false)) {
-                      Set<String> customRunners = new THashSet<>();
-                      collectCustomRunners(customRunners, (JSClass)clazz, support, null);
-                      result.add(Pair.create(((JSClass)clazz).getQualifiedName(), customRunners));
-                    }
-                  }
-                  return true;
-                }
-              }, moduleScope, myProject);
-            return result;
+            return getTestClassesInPackage(module, bc, params.getPackageName(), support);
           });
 
         if (classes == null) {
@@ -296,18 +284,71 @@ public class FlexUnitPrecompileTask implements CompileTask {
 
     final String fileName = FlexCommonUtils.FLEX_UNIT_LAUNCHER + FlexCommonUtils.getFlexUnitLauncherExtension(bc.getNature());
     final File launcherFile = new File(tmpDir, fileName);
-    FileUtil.delete(launcherFile);
 
+    // The launcher is kept between runs and is not touched if the test set is the same,
+    // so that the build skips recompilation when test sources are not changed either (see FlexBuilder)
+    if (!isLauncherUpToDate(launcherFile, launcherText)) {
+      FileUtil.delete(launcherFile);
+
+      try {
+        FileUtil.writeToFile(launcherFile, launcherText);
+      }
+      catch (IOException e) {
+        context.addMessage(CompilerMessageCategory.ERROR, e.getMessage(), null, -1, -1);
+        return false;
+      }
+    }
+
+    return true;
+  }
+
+  private static boolean isLauncherUpToDate(final File launcherFile, final String launcherText) {
     try {
-      FileUtil.writeToFile(launcherFile, launcherText);
+      return launcherFile.isFile() && launcherText.equals(FileUtil.loadFile(launcherFile));
     }
     catch (IOException e) {
-      context.addMessage(CompilerMessageCategory.ERROR, e.getMessage(), null, -1, -1);
       return false;
     }
+  }
 
-    context.putUserData(FILES_TO_DELETE, Collections.singletonList(launcherFile.getPath()));
-    return true;
+  private static Collection<Pair<String, Set<String>>> getTestClassesInPackage(final Module module,
+                                                                              final FlexBuildConfiguration bc,
+                                                                              final String packageName,
+                                                                              final FlexUnitSupport support) {
+    final Project project = module.getProject();
+    final Map<String, Collection<Pair<String, Set<String>>>> bcAndPackageToTestClasses =
+      CachedValuesManager.getManager(project).getCachedValue(module, PACKAGE_TEST_CLASSES_KEY, () ->
+        CachedValueProvider.Result.create(new ConcurrentHashMap<>(), PsiModificationTracker.MODIFICATION_COUNT,
+                                          ProjectRootManager.getInstance(project)), false);
+
+    final String key = bc.getName() + "|" + packageName;
+    Collection<Pair<String, Set<String>>> result = bcAndPackageToTestClasses.get(key);
+    if (result == null) {
+      result = findTestClassesInPackage(module, packageName, support);
+      bcAndPackageToTestClasses.put(key, result);
+    }
+    return result;
+  }
+
+  private static Collection<Pair<String, Set<String>>> findTestClassesInPackage(final Module module,
+                                                                               final String packageName,
+                                                                               final FlexUnitSupport support) {
+    final GlobalSearchScope moduleScope = GlobalSearchScope.moduleScope(module);
+    final Collection<Pair<String, Set<String>>> result = new ArrayList<>();
+    JSPackageIndex.processElementsInScopeRecursive(packageName, new JSPackageIndex.PackageQualifiedElementsProcessor() {
+      public boolean process(String qualifiedName, JSPackageIndexInfo.Kind kind, boolean isPublic) {
+        if (kind == JSPackageIndexInfo.Kind.CLASS) {
+          PsiElement clazz = ActionScriptClassResolver.findClassByQNameStatic(qualifiedName, moduleScope);
+          if (clazz instanceof JSClass && support.isTestClass((JSClass)clazz, false)) {
+            Set<String> customRunners = new THashSet<>();
+            collectCustomRunners(customRunners, (JSClass)clazz, support, null);
+            result.add(Pair.create(((JSClass)clazz).getQualifiedName(), customRunners));
+          }
+        }
+        return true;
+      }
+    }, moduleScope, module.getProject());
+    return Collections.unmodifiableCollection(result);
   }
 
   private static String replace(final String text, final String pattern, final String replacement) {
@@ -36,6 +36,9 @@ import com.intellij.lang.javascript.psi.resolve.JSResolveUtil;
 import com.intellij.lang.javascript.refactoring.FormatFixer;
 import com.intellij.lang.javascript.psi.util.JSProjectUtil;
 import com.intellij.lang.javascript.refactoring.util.JSRefactoringUtil;
+import com.intellij.openapi.application.Application;
+import com.intellij.openapi.application.ApplicationManager;
+import com.intellij.openapi.progress.ProgressManager;
 import com.intellij.openapi.project.Project;
 import com.intellij.openapi.ui.Messages;
 import com.intellij.openapi.util.ModificationTracker;
@@ -60,6 +63,12 @@ import java.util.concurrent.Callable;
  * @author Kirill Safonov
  */
 public class FlashUmlDataModel extends DiagramDataModel<Object> {
+  /**
+   * Looking up classes and their relationships is what makes diagrams of big packages slow, so a package, whether shown or expanded,
+   * adds classes only until the diagram has this many. Classes added by the user one by one are always shown.
+   */
+  private static final int MAX_PACKAGE_CLASSES = 1000;
+
   private final Map<String, SmartPsiElementPointer<JSClass>> classesAddedByUser = new HashMap<>();
   private final Map<String, SmartPsiElementPointer<JSClass>> classesRemovedByUser = new HashMap<>();
   private final String initialPackage;
@@ -92,7 +101,7 @@ public class FlashUmlDataModel extends DiagramDataModel<Object> {
         packages.add(aPackage);
       }
 
-      for (JSClass jsClass : getClasses(initialPackage, searchScope)) {
+      for (JSClass jsClass : getClasses(initialPackage, searchScope, MAX_PACKAGE_CLASSES)) {
         classesAddedByUser.put(jsClass.getQualifiedName(), spManager.createSmartPsiElementPointer(jsClass));
       }
     }
@@ -114,10 +123,12 @@ public class FlashUmlDataModel extends DiagramDataModel<Object> {
     return result;
   }
 
-  private static Collection<JSClass> getClasses(final String packageName, final GlobalSearchScope searchScope) {
+  private static Collection<JSClass> getClasses(final String packageName, final GlobalSearchScope searchScope, final int limit) {
     final Collection<JSClass> result = new HashSet<>();
+    if (limit <= 0) return result;
     JSPackageIndex.processElementsInScope(packageName, null, new JSPackageIndex.PackageElementsProcessor() {
       public boolean process(VirtualFile file, String name, JSPackageIndexInfo.Kind kind, boolean isPublic) {
+        ProgressManager.checkCanceled();
         String qualifiedName = StringUtil.getQualifiedName(packageName, name);
         if (kind == JSPackageIndexInfo.Kind.CLASS || kind == JSPackageIndexInfo.Kind.INTERFACE) {
           PsiElement element = ActionScriptClassResolver.findClassByQNameStatic(qualifiedName, searchScope);
@@ -125,7 +136,7 @@ public class FlashUmlDataModel extends DiagramDataModel<Object> {
             result.add((JSClass)element);
           }
         }
-        return true;
+        return result.size() < limit;
       }
     }, searchScope, searchScope.getProject());
     return result;
@@ -273,7 +284,23 @@ public class FlashUmlDataModel extends DiagramDataModel<Object> {
            one.getQualifiedName().equals(another.getQualifiedName());
   }
 
+  /**
+   * Called by the diagram builder on the EDT: the model is then computed in a read action in background under a modal progress,
+   * so that the UI stays responsive and a big diagram can be cancelled. A cancelled diagram shows the nodes found so far.
+   */
   public synchronized void updateDataModel() {
+    final Application application = ApplicationManager.getApplication();
+    if (application.isDispatchThread() && !application.isWriteAccessAllowed() && !application.isUnitTestMode()) {
+      ProgressManager.getInstance().runProcessWithProgressSynchronously(
+        () -> application.runReadAction(this::doUpdateDataModel), FlexBundle.message("uml.building.diagram.message"), true,
+        getProject());
+    }
+    else {
+      application.runReadAction(this::doUpdateDataModel);
+    }
+  }
+
+  private void doUpdateDataModel() {
     final Set<JSClass> classes = getAllClasses();
     syncPackages();
     final Set<JSClass> interfaces = new HashSet<>();
@@ -294,14 +321,20 @@ public class FlashUmlDataModel extends DiagramDataModel<Object> {
       }
     }
 
+    // nodes and edges are looked up for every class and for its super classes and interfaces, so linear findNode() and addEdge()
+    // would make large package diagrams quadratic
+    final Map<String, DiagramNode<Object>> classNodes = getClassNodesByFqn();
+    final Set<EdgeKey> edgeKeys = EdgeKey.collect(myEdges);
+
     for (JSClass psiClass : classes) {
+      ProgressManager.checkCanceled();
       {
-        DiagramNode<Object> source = findNode(psiClass);
+        DiagramNode<Object> source = findClassNode(classNodes, psiClass);
         DiagramNode<Object> target = null;
         Collection<JSClass> processed = new ArrayList<>();
         JSClass superClass = getSuperClass(psiClass, processed);
         while (target == null && superClass != null) {
-          target = findNode(superClass);
+          target = findClassNode(classNodes, superClass);
           superClass = getSuperClass(superClass, processed);
         }
 
@@ -309,17 +342,18 @@ public class FlashUmlDataModel extends DiagramDataModel<Object> {
           if (!((JSClass)getIdentifyingElement(source)).isInterface() ||
               !JSResolveUtil.isObjectClass((JSClass)getIdentifyingElement(target))) {
             addEdge(source, target,
-                    psiClass.isInterface() ? FlashUmlRelationship.INTERFACE_GENERALIZATION : FlashUmlRelationship.GENERALIZATION);
+                    psiClass.isInterface() ? FlashUmlRelationship.INTERFACE_GENERALIZATION : FlashUmlRelationship.GENERALIZATION,
+                    myEdges, edgeKeys);
           }
         }
       }
 
       for (JSClass inter : psiClass.getImplementedInterfaces()) {
         if (interfaces.contains(inter)) {
-          DiagramNode<Object> source = findNode(psiClass);
-          DiagramNode<Object> target = findNode(inter);
+          DiagramNode<Object> source = findClassNode(classNodes, psiClass);
+          DiagramNode<Object> target = findClassNode(classNodes, inter);
           if (source != null && target != null && source != target) {
-            addEdge(source, target, FlashUmlRelationship.REALIZATION);
+            addEdge(source, target, FlashUmlRelationship.REALIZATION, myEdges, edgeKeys);
           }
         }
       }
@@ -329,10 +363,10 @@ public class FlashUmlDataModel extends DiagramDataModel<Object> {
 
         for (JSClass inter : found) {
           if (interfaces.contains(inter)) {
-            DiagramNode<Object> source = findNode(psiClass);
-            DiagramNode<Object> target = findNode(inter);
+            DiagramNode<Object> source = findClassNode(classNodes, psiClass);
+            DiagramNode<Object> target = findClassNode(classNodes, inter);
             if (source != null && target != null && source != target) {
-              addEdge(source, target, FlashUmlRelationship.INTERFACE_GENERALIZATION);
+              addEdge(source, target, FlashUmlRelationship.INTERFACE_GENERALIZATION, myEdges, edgeKeys);
             }
           }
         }
@@ -344,7 +378,7 @@ public class FlashUmlDataModel extends DiagramDataModel<Object> {
         Collection<JSClass> processed = new ArrayList<>();
         JSClass cur = getSuperClass(psiClass, processed);
         while (cur != null) {
-          if (findNode(cur) == null) {
+          if (findClassNode(classNodes, cur) == null) {
             ContainerUtil.addAll(inters, cur.getImplementedInterfaces());
           }
           else {
@@ -357,11 +391,11 @@ public class FlashUmlDataModel extends DiagramDataModel<Object> {
 
         while (!faces.isEmpty()) {
           JSClass inter = faces.get(0);
-          if (findNode(inter) != null) {
-            DiagramNode<Object> source = findNode(psiClass);
-            DiagramNode<Object> target = findNode(inter);
+          if (findClassNode(classNodes, inter) != null) {
+            DiagramNode<Object> source = findClassNode(classNodes, psiClass);
+            DiagramNode<Object> target = findClassNode(classNodes, inter);
             if (source != null && target != null && source != target) {
-              addEdge(source, target, FlashUmlRelationship.REALIZATION);
+              addEdge(source, target, FlashUmlRelationship.REALIZATION, myEdges, edgeKeys);
             }
             faces.remove(inter);
           }
@@ -375,8 +409,10 @@ public class FlashUmlDataModel extends DiagramDataModel<Object> {
 
     if (isShowDependencies()) {
       final EnumSet<FlashUmlDependenciesSettingsOption> options = FlashUmlDependenciesSettingsOption.getEnabled();
+      final Set<EdgeKey> dependencyEdgeKeys = EdgeKey.collect(myDependencyEdges);
       for (JSClass psiClass : classes) {
-        showDependenciesFor(psiClass, options);
+        ProgressManager.checkCanceled();
+        showDependenciesFor(psiClass, options, classNodes, dependencyEdgeKeys);
       }
     }
     //merge!
@@ -385,8 +421,11 @@ public class FlashUmlDataModel extends DiagramDataModel<Object> {
     mergeWithBackup(myDependencyEdges, myDependencyEdgesOld);
   }
 
-  private void showDependenciesFor(final JSClass clazz, final EnumSet<FlashUmlDependenciesSettingsOption> options) {
-    DiagramNode<Object> mainNode = findNode(clazz);
+  private void showDependenciesFor(final JSClass clazz,
+                                   final EnumSet<FlashUmlDependenciesSettingsOption> options,
+                                   final Map<String, DiagramNode<Object>> classNodes,
+                                   final Set<EdgeKey> dependencyEdgeKeys) {
+    DiagramNode<Object> mainNode = findClassNode(classNodes, clazz);
     if (mainNode == null) return;
 
     FlashUmlDependencyProvider provider = new FlashUmlDependencyProvider(clazz);
@@ -394,9 +433,9 @@ public class FlashUmlDataModel extends DiagramDataModel<Object> {
     Collection<Pair<JSClass, FlashUmlRelationship>> list = provider.computeUsedClasses();
     for (Pair<JSClass, FlashUmlRelationship> pair : list) {
       if (shouldShow(options, clazz, pair.first, pair.second)) {
-        DiagramNode<Object> node = findNode(pair.first);
+        DiagramNode<Object> node = findClassNode(classNodes, pair.first);
         if (node != null) {
-          addDependencyEdge(mainNode, node, pair.second);
+          addEdge(mainNode, node, pair.second, myDependencyEdges, dependencyEdgeKeys);
         }
       }
     }
@@ -492,22 +531,82 @@ public class FlashUmlDataModel extends DiagramDataModel<Object> {
     return addEdge(from, to, relationship, myEdges);
   }
 
-  public FlashUmlEdge addDependencyEdge(DiagramNode<Object> from, DiagramNode<Object> to, DiagramRelationshipInfo relationship) {
-    return addEdge(from, to, relationship, myDependencyEdges);
-  }
-
   private static FlashUmlEdge addEdge(DiagramNode<Object> from,
                                    DiagramNode<Object> to,
                                    DiagramRelationshipInfo relationship,
                                    Collection<DiagramEdge<Object>> storage) {
-    for (DiagramEdge edge : storage) {
-      if (edge.getSource() == from && edge.getTarget() == to && relationship.equals(edge.getRelationship())) return null;
-    }
+    return addEdge(from, to, relationship, storage, EdgeKey.collect(storage));
+  }
+
+  private static FlashUmlEdge addEdge(DiagramNode<Object> from,
+                                      DiagramNode<Object> to,
+                                      DiagramRelationshipInfo relationship,
+                                      Collection<DiagramEdge<Object>> storage,
+                                      Set<EdgeKey> storageKeys) {
+    if (!storageKeys.add(new EdgeKey(from, to, relationship))) return null;
     FlashUmlEdge result = new FlashUmlEdge(from, to, relationship);
     storage.add(result);
     return result;
   }
 
+  private Map<String, DiagramNode<Object>> getClassNodesByFqn() {
+    final Map<String, DiagramNode<Object>> result = new HashMap<>(myNodes.size());
+    for (DiagramNode<Object> node : myNodes) {
+      if (node instanceof FlashUmlClassNode) {
+        final String fqn = getFqn(getIdentifyingElement(node));
+        if (fqn != null && !result.containsKey(fqn)) {
+          result.put(fqn, node);
+        }
+      }
+    }
+    return result;
+  }
+
+  @Nullable
+  private static DiagramNode<Object> findClassNode(Map<String, DiagramNode<Object>> classNodes, JSClass psiClass) {
+    final String fqn = getFqn(psiClass);
+    return fqn != null ? classNodes.get(fqn) : null;
+  }
+
+  /**
+   * Edge identity as checked by {@link #addEdge(DiagramNode, DiagramNode, DiagramRelationshipInfo, Collection, Set)}
+   */
+  private static class EdgeKey {
+    private final DiagramNode source;
+    private final DiagramNode target;
+    private final DiagramRelationshipInfo relationship;
+
+    private EdgeKey(DiagramNode source, DiagramNode target, DiagramRelationshipInfo relationship) {
+      this.source = source;
+      this.target = target;
+      this.relationship = relationship;
+    }
+
+    private static Set<EdgeKey> collect(Collection<DiagramEdge<Object>> edges) {
+      final Set<EdgeKey> result = new HashSet<>(edges.size());
+      for (DiagramEdge<Object> edge : edges) {
+        result.add(new EdgeKey(edge.getSource(), edge.getTarget(), edge.getRelationship()));
+      }
+      return result;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) return true;
+      if (!(o instanceof EdgeKey)) return false;
+      final EdgeKey key = (EdgeKey)o;
+      return source == key.source && target == key.target && relationship.equals(key.relationship);
+    }
+
+    @Override
+    public int hashCode() {
+      int result = System.identityHashCode(source);
+      result = 31 * result + System.identityHashCode(target);
+      result = 31 * result + relationship.hashCode();
+      return result;
+    }
+  }
+
   private Set<JSClass> getAllClasses() {
     Set<JSClass> classes = new HashSet<>();
     for (SmartPsiElementPointer<JSClass> pointer : classesAddedByUser.values()) {
@@ -515,11 +614,11 @@ public class FlashUmlDataModel extends DiagramDataModel<Object> {
     }
     final GlobalSearchScope searchScope = GlobalSearchScope.allScope(getProject());
     if (initialPackage != null && FlashUmlElementManager.packageExists(getProject(), initialPackage, searchScope)) {
-      classes.addAll(getClasses(initialPackage, searchScope));
+      classes.addAll(getClasses(initialPackage, searchScope, MAX_PACKAGE_CLASSES - classes.size()));
     }
     for (String psiPackage : packages) {
       if (FlashUmlElementManager.packageExists(getProject(), psiPackage, searchScope)) {
-        classes.addAll(getClasses(psiPackage, searchScope));
+        classes.addAll(getClasses(psiPackage, searchScope, MAX_PACKAGE_CLASSES - classes.size()));
       }
     }
     classes.remove(null);
@@ -661,7 +760,7 @@ public class FlashUmlDataModel extends DiagramDataModel<Object> {
     packages.remove(psiPackage);
     packagesRemovedByUser.add(psiPackage);
     final GlobalSearchScope searchScope = GlobalSearchScope.allScope(getProject());
-    for (JSClass psiClass : getClasses(psiPackage, searchScope)) {
+    for (JSClass psiClass : getClasses(psiPackage, searchScope, MAX_PACKAGE_CLASSES - classesAddedByUser.size())) {
       addElement(psiClass);
     }
     for (String aPackage : getSubPackages(psiPackage, searchScope)) {
@@ -1,11 +1,15 @@
 package com.dmarcotte.handlebars.completion;
 
+import com.dmarcotte.handlebars.index.HbHelperInvocationIndex;
 import com.dmarcotte.handlebars.parsing.HbTokenTypes;
 import com.dmarcotte.handlebars.psi.HbMustacheName;
 import com.intellij.codeInsight.completion.*;
 import com.intellij.codeInsight.lookup.LookupElementBuilder;
 import com.intellij.lang.ASTNode;
+import com.intellij.openapi.project.Project;
 import com.intellij.psi.PsiElement;
+import com.intellij.psi.search.GlobalSearchScope;
+import com.intellij.psi.tree.TokenSet;
 import com.intellij.psi.util.PsiTreeUtil;
 import com.intellij.util.ProcessingContext;
 import org.jetbrains.annotations.NotNull;
@@ -13,6 +17,9 @@ import org.jetbrains.annotations.NotNull;
 import static com.intellij.patterns.PlatformPatterns.psiElement;
 
 public class HbKeywordCompletionContributor extends CompletionContributor {
+  // names of helpers used in the project and its libraries are suggested at these positions
+  private static final TokenSet HELPER_POSITIONS = TokenSet.create(HbTokenTypes.OPEN, HbTokenTypes.OPEN_BLOCK, HbTokenTypes.OPEN_SEXPR);
+
   public HbKeywordCompletionContributor() {
     extend(CompletionType.BASIC, psiElement(HbTokenTypes.ID).withSuperParent(2, psiElement(HbTokenTypes.PATH)),
            new CompletionProvider<CompletionParameters>() {
@@ -29,6 +36,12 @@ public class HbKeywordCompletionContributor extends CompletionContributor {
                  result.addElement(LookupElementBuilder.create("unless"));
                  result.addElement(LookupElementBuilder.create("with"));
                }
+               if (prevSiblingNode != null && HELPER_POSITIONS.contains(prevSiblingNode.getElementType())) {
+                 final Project project = parameters.getPosition().getProject();
+                 for (String helperName : HbHelperInvocationIndex.getHelperNames(GlobalSearchScope.allScope(project))) {
+                   result.addElement(LookupElementBuilder.create(helperName));
+                 }
+               }
              }
            });
   }
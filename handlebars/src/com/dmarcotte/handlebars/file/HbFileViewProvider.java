@@ -53,9 +53,12 @@ public class HbFileViewProvider extends MultiplePsiFilesPerDocumentFileViewProvi
     myTemplateLanguage = templateLanguage;
   }
 
+  /**
+   * Handlebars elements are reparsed in place (see HbMustacheElementType), the template data tree has to be rebuilt from the whole text
+   */
   @Override
   public boolean supportsIncrementalReparse(@NotNull Language rootLanguage) {
-    return false;
+    return rootLanguage == myBaseLanguage;
   }
 
   @NotNull
@@ -39,11 +39,11 @@ public class HbFormattingModelBuilder extends TemplateLanguageFormattingModelBui
                                                            @Nullable Alignment alignment,
                                                            @Nullable List<DataLanguageBlockWrapper> foreignChildren,
                                                            @NotNull CodeStyleSettings codeStyleSettings) {
+    // called for the root block only, its descendants are created by the factory it gets, which shares the policy
+    // (creating the document model may copy the whole text, doing it for every block makes formatting quadratic)
     final FormattingDocumentModelImpl documentModel = FormattingDocumentModelImpl.createOn(node.getPsi().getContainingFile());
     HtmlPolicy policy = new HtmlPolicy(codeStyleSettings, documentModel);
-    return HbTokenTypes.TAGS.contains(node.getElementType()) ?
-           new HandlebarsTagBlock(node, wrap, alignment, this, codeStyleSettings, foreignChildren, policy) :
-           new HandlebarsBlock(node, wrap, alignment, this, codeStyleSettings, foreignChildren, policy);
+    return new HandlebarsBlockFactory(policy).createTemplateLanguageBlock(node, wrap, alignment, foreignChildren, codeStyleSettings);
   }
 
   /**
@@ -88,6 +88,26 @@ public class HbFormattingModelBuilder extends TemplateLanguageFormattingModelBui
     return false;
   }
 
+  private static class HandlebarsBlockFactory implements TemplateLanguageBlockFactory {
+    @NotNull
+    private final HtmlPolicy myHtmlPolicy;
+
+    HandlebarsBlockFactory(@NotNull HtmlPolicy htmlPolicy) {
+      myHtmlPolicy = htmlPolicy;
+    }
+
+    @Override
+    public TemplateLanguageBlock createTemplateLanguageBlock(@NotNull ASTNode node,
+                                                             @Nullable Wrap wrap,
+                                                             @Nullable Alignment alignment,
+                                                             @Nullable List<DataLanguageBlockWrapper> foreignChildren,
+                                                             @NotNull CodeStyleSettings codeStyleSettings) {
+      return HbTokenTypes.TAGS.contains(node.getElementType()) ?
+             new HandlebarsTagBlock(node, wrap, alignment, this, codeStyleSettings, foreignChildren, myHtmlPolicy) :
+             new HandlebarsBlock(node, wrap, alignment, this, codeStyleSettings, foreignChildren, myHtmlPolicy);
+    }
+  }
+
   private static class HandlebarsTagBlock extends HandlebarsBlock {
     @NotNull
     private final Alignment myChildAttributeAlignment;
@@ -142,6 +162,15 @@ public class HbFormattingModelBuilder extends TemplateLanguageFormattingModelBui
     }
   }
 
+  private static boolean isBlank(CharSequence text) {
+    for (int i = 0; i < text.length(); i++) {
+      if (text.charAt(i) > ' ') {
+        return false;
+      }
+    }
+    return true;
+  }
+
   private static boolean isAttribute(ASTNode child) {
     IElementType type = child.getElementType();
     return type == HbTokenTypes.PARAM || type == HbTokenTypes.HASH;
@@ -151,6 +180,9 @@ public class HbFormattingModelBuilder extends TemplateLanguageFormattingModelBui
 
     @NotNull
     protected final HtmlPolicy myHtmlPolicy;
+    // computed once: children ask for the indent of their parent block
+    private Indent myIndent;
+    private boolean myIndentComputed;
 
 
     HandlebarsBlock(@NotNull ASTNode node,
@@ -231,8 +263,16 @@ public class HbFormattingModelBuilder extends TemplateLanguageFormattingModelBui
      */
     @Override
     public Indent getIndent() {
+      if (!myIndentComputed) {
+        myIndent = computeIndent();
+        myIndentComputed = true;
+      }
+      return myIndent;
+    }
+
+    private Indent computeIndent() {
       // ignore whitespace
-      if (myNode.getText().trim().length() == 0) {
+      if (isBlank(myNode.getChars())) {
         return Indent.getNoneIndent();
       }
 
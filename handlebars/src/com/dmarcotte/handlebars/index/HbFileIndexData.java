@@ -0,0 +1,43 @@
+package com.dmarcotte.handlebars.index;
+
+import com.intellij.util.SmartList;
+import gnu.trove.THashMap;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Names used by a template: partial references with their offsets in the file, for find usages, and names of invoked helpers
+ */
+class HbFileIndexData {
+  private final Map<String, List<Integer>> myPartialReferences = new THashMap<>();
+  private final Map<String, Void> myHelperInvocations = new THashMap<>();
+
+  @NotNull
+  public Map<String, List<Integer>> getPartialReferences() {
+    return myPartialReferences;
+  }
+
+  public void addPartialReference(@NotNull String partialKey, int offset) {
+    add(myPartialReferences, partialKey, offset);
+  }
+
+  @NotNull
+  public Map<String, Void> getHelperInvocations() {
+    return myHelperInvocations;
+  }
+
+  public void addHelperInvocation(@NotNull String helperName) {
+    myHelperInvocations.put(helperName, null);
+  }
+
+  private static void add(@NotNull Map<String, List<Integer>> map, @NotNull String name, int offset) {
+    List<Integer> offsets = map.get(name);
+    if (offsets == null) {
+      offsets = new SmartList<>();
+      map.put(name, offsets);
+    }
+    offsets.add(offset);
+  }
+}
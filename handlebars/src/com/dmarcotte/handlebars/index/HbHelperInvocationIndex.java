@@ -0,0 +1,64 @@
+package com.dmarcotte.handlebars.index;
+
+import com.intellij.psi.search.GlobalSearchScope;
+import com.intellij.util.CommonProcessors;
+import com.intellij.util.indexing.*;
+import com.intellij.util.io.EnumeratorStringDescriptor;
+import com.intellij.util.io.KeyDescriptor;
+import gnu.trove.THashSet;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Collection;
+
+/**
+ * Templates by the names of helpers they invoke, see {@link HbIndexUtil#isHelperInvocation}
+ */
+public class HbHelperInvocationIndex extends ScalarIndexExtension<String> {
+  public static final ID<String, Void> HELPER_INVOCATION_INDEX = ID.create("handlebars.helper.invocations");
+  private final DataIndexer<String, Void, FileContent> myDataIndexer =
+    inputData -> HbIndexUtil.indexFile(inputData).getHelperInvocations();
+
+  @NotNull
+  @Override
+  public ID<String, Void> getName() {
+    return HELPER_INVOCATION_INDEX;
+  }
+
+  @NotNull
+  @Override
+  public DataIndexer<String, Void, FileContent> getIndexer() {
+    return myDataIndexer;
+  }
+
+  @NotNull
+  @Override
+  public KeyDescriptor<String> getKeyDescriptor() {
+    return EnumeratorStringDescriptor.INSTANCE;
+  }
+
+  @NotNull
+  @Override
+  public FileBasedIndex.InputFilter getInputFilter() {
+    return HbIndexUtil.INPUT_FILTER;
+  }
+
+  @Override
+  public boolean dependsOnFileContent() {
+    return true;
+  }
+
+  @Override
+  public int getVersion() {
+    return HbIndexUtil.INDEX_VERSION;
+  }
+
+  /**
+   * @return names of helpers invoked in <code>scope</code>
+   */
+  @NotNull
+  public static Collection<String> getHelperNames(@NotNull GlobalSearchScope scope) {
+    final CommonProcessors.CollectProcessor<String> processor = new CommonProcessors.CollectProcessor<>(new THashSet<>());
+    FileBasedIndex.getInstance().processAllKeys(HELPER_INVOCATION_INDEX, processor, scope, null);
+    return processor.getResults();
+  }
+}
@@ -0,0 +1,175 @@
+package com.dmarcotte.handlebars.index;
+
+import com.dmarcotte.handlebars.file.HbFileType;
+import com.dmarcotte.handlebars.psi.*;
+import com.intellij.openapi.util.Key;
+import com.intellij.openapi.util.io.FileUtil;
+import com.intellij.openapi.util.text.StringUtil;
+import com.intellij.openapi.vfs.VirtualFile;
+import com.intellij.psi.PsiElement;
+import com.intellij.psi.PsiFile;
+import com.intellij.psi.PsiRecursiveElementWalkingVisitor;
+import com.intellij.psi.PsiWhiteSpace;
+import com.intellij.util.indexing.DefaultFileTypeSpecificInputFilter;
+import com.intellij.util.indexing.FileBasedIndex;
+import com.intellij.util.indexing.FileContent;
+import com.intellij.util.io.DataExternalizer;
+import com.intellij.util.io.DataInputOutputUtil;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+public class HbIndexUtil {
+  // inc when the parser or the indexed data changes
+  public static final int INDEX_VERSION = 2;
+
+  public static final FileBasedIndex.InputFilter INPUT_FILTER = new DefaultFileTypeSpecificInputFilter(HbFileType.INSTANCE);
+
+  static final DataExternalizer<List<Integer>> OFFSETS_EXTERNALIZER = new DataExternalizer<List<Integer>>() {
+    @Override
+    public void save(@NotNull DataOutput out, List<Integer> value) throws IOException {
+      DataInputOutputUtil.writeINT(out, value.size());
+      int previous = 0;
+      for (int offset : value) {
+        // offsets are sorted, deltas are shorter
+        DataInputOutputUtil.writeINT(out, offset - previous);
+        previous = offset;
+      }
+    }
+
+    @Override
+    public List<Integer> read(@NotNull DataInput in) throws IOException {
+      final int size = DataInputOutputUtil.readINT(in);
+      final List<Integer> result = new ArrayList<>(size);
+      int offset = 0;
+      for (int i = 0; i < size; i++) {
+        offset += DataInputOutputUtil.readINT(in);
+        result.add(offset);
+      }
+      return result;
+    }
+  };
+
+  private static final Key<HbFileIndexData> ourIndexData = Key.create("handlebars.index.data");
+
+  /**
+   * Partial reference and helper invocation indices are built from a single walk over the file
+   */
+  @NotNull
+  static HbFileIndexData indexFile(@NotNull FileContent content) {
+    HbFileIndexData indexData = content.getUserData(ourIndexData);
+    if (indexData != null) return indexData;
+    //noinspection SynchronizationOnLocalVariableOrMethodParameter
+    synchronized (content) {
+      indexData = content.getUserData(ourIndexData);
+      if (indexData != null) return indexData;
+      indexData = indexFile(content.getPsiFile());
+      content.putUserData(ourIndexData, indexData);
+    }
+    return indexData;
+  }
+
+  @NotNull
+  private static HbFileIndexData indexFile(@NotNull PsiFile file) {
+    final HbFileIndexData result = new HbFileIndexData();
+    file.accept(new PsiRecursiveElementWalkingVisitor() {
+      @Override
+      public void visitElement(PsiElement element) {
+        if (element instanceof HbPartialName) {
+          final String path = getPartialPath((HbPartialName)element);
+          if (path != null) {
+            result.addPartialReference(getPartialKey(path), element.getTextOffset());
+          }
+          // names of partials aren't helpers
+          return;
+        }
+        if (element instanceof HbMustacheName) {
+          if (isHelperInvocation((HbMustacheName)element)) {
+            result.addHelperInvocation(element.getText());
+          }
+          return;
+        }
+        super.visitElement(element);
+      }
+    });
+    return result;
+  }
+
+  /**
+   * @return the name of the partial defined by a template file: the file name without the extension and the leading underscore
+   * used by some tools to mark partials, e.g. "user" for "_user.hbs"
+   */
+  @NotNull
+  public static String getPartialName(@NotNull String fileName) {
+    return StringUtil.trimStart(FileUtil.getNameWithoutExtension(fileName), "_");
+  }
+
+  /**
+   * @return the path of the partial referenced by <code>{{> path}}</code> (without quotes), or null if it's computed dynamically
+   */
+  @Nullable
+  public static String getPartialPath(@NotNull HbPartialName partialName) {
+    String text = partialName.getText();
+    if (text.length() > 1 && (text.startsWith("'") && text.endsWith("'") || text.startsWith("\"") && text.endsWith("\""))) {
+      text = text.substring(1, text.length() - 1);
+    }
+    if (text.isEmpty() || text.startsWith("@") || text.startsWith("(") || StringUtil.containsWhitespaces(text)) {
+      return null;
+    }
+    return text;
+  }
+
+  /**
+   * @return the key of a partial path in {@link HbPartialDefinitionIndex} and {@link HbPartialReferenceIndex}: its last segment
+   */
+  @NotNull
+  public static String getPartialKey(@NotNull String partialPath) {
+    return StringUtil.trimStart(partialPath.substring(partialPath.lastIndexOf('/') + 1), "_");
+  }
+
+  /**
+   * @return true if <code>file</code> defines the partial at <code>partialPath</code>: its name matches the last segment of the path,
+   * and the names of its parent directories match the preceding segments
+   */
+  public static boolean isPartialFile(@NotNull VirtualFile file, @NotNull String partialPath) {
+    final List<String> segments = StringUtil.split(partialPath, "/");
+    if (segments.isEmpty() || !getPartialName(file.getName()).equals(getPartialKey(partialPath))) {
+      return false;
+    }
+    VirtualFile parent = file.getParent();
+    for (int i = segments.size() - 2; i >= 0; i--) {
+      final String segment = segments.get(i);
+      if (segment.equals(".")) {
+        continue;
+      }
+      if (parent == null || !parent.getName().equals(segment)) {
+        return false;
+      }
+      parent = parent.getParent();
+    }
+    return true;
+  }
+
+  /**
+   * Helpers are names invoked with params or a hash (including sub-expressions) and names of blocks
+   */
+  public static boolean isHelperInvocation(@NotNull HbMustacheName name) {
+    final PsiElement parent = name.getParent();
+    if (parent instanceof HbPartialName || parent instanceof HbOpenPartialBlockMustache) {
+      return false;
+    }
+    if (parent instanceof HbOpenBlockMustache) {
+      return true;
+    }
+    PsiElement next = name.getNextSibling();
+    while (next instanceof PsiWhiteSpace) {
+      next = next.getNextSibling();
+    }
+    return next instanceof HbParam || next instanceof HbHash;
+  }
+}
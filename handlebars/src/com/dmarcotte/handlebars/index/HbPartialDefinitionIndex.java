@@ -0,0 +1,78 @@
+package com.dmarcotte.handlebars.index;
+
+import com.intellij.openapi.vfs.VirtualFile;
+import com.intellij.psi.search.GlobalSearchScope;
+import com.intellij.util.CommonProcessors;
+import com.intellij.util.containers.ContainerUtil;
+import com.intellij.util.indexing.*;
+import com.intellij.util.io.EnumeratorStringDescriptor;
+import com.intellij.util.io.KeyDescriptor;
+import gnu.trove.THashSet;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Templates by the name of the partial they define, see {@link HbIndexUtil#getPartialName(String)}
+ */
+public class HbPartialDefinitionIndex extends ScalarIndexExtension<String> {
+  public static final ID<String, Void> PARTIAL_DEFINITION_INDEX = ID.create("handlebars.partial.definitions");
+  private final DataIndexer<String, Void, FileContent> myDataIndexer =
+    inputData -> Collections.singletonMap(HbIndexUtil.getPartialName(inputData.getFileName()), null);
+
+  @NotNull
+  @Override
+  public ID<String, Void> getName() {
+    return PARTIAL_DEFINITION_INDEX;
+  }
+
+  @NotNull
+  @Override
+  public DataIndexer<String, Void, FileContent> getIndexer() {
+    return myDataIndexer;
+  }
+
+  @NotNull
+  @Override
+  public KeyDescriptor<String> getKeyDescriptor() {
+    return EnumeratorStringDescriptor.INSTANCE;
+  }
+
+  @NotNull
+  @Override
+  public FileBasedIndex.InputFilter getInputFilter() {
+    return HbIndexUtil.INPUT_FILTER;
+  }
+
+  @Override
+  public boolean dependsOnFileContent() {
+    return false;
+  }
+
+  @Override
+  public int getVersion() {
+    return HbIndexUtil.INDEX_VERSION;
+  }
+
+  /**
+   * @return templates which define the partial referenced as <code>{{> partialPath}}</code>
+   */
+  @NotNull
+  public static List<VirtualFile> findPartialFiles(@NotNull String partialPath, @NotNull GlobalSearchScope scope) {
+    final Collection<VirtualFile> files =
+      FileBasedIndex.getInstance().getContainingFiles(PARTIAL_DEFINITION_INDEX, HbIndexUtil.getPartialKey(partialPath), scope);
+    return ContainerUtil.filter(files, file -> HbIndexUtil.isPartialFile(file, partialPath));
+  }
+
+  /**
+   * @return names of all partials defined in <code>scope</code>
+   */
+  @NotNull
+  public static Collection<String> getPartialNames(@NotNull GlobalSearchScope scope) {
+    final CommonProcessors.CollectProcessor<String> processor = new CommonProcessors.CollectProcessor<>(new THashSet<>());
+    FileBasedIndex.getInstance().processAllKeys(PARTIAL_DEFINITION_INDEX, processor, scope, null);
+    return processor.getResults();
+  }
+}
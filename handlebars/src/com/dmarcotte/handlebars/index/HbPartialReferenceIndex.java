@@ -0,0 +1,58 @@
+package com.dmarcotte.handlebars.index;
+
+import com.intellij.util.indexing.*;
+import com.intellij.util.io.DataExternalizer;
+import com.intellij.util.io.EnumeratorStringDescriptor;
+import com.intellij.util.io.KeyDescriptor;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.List;
+
+/**
+ * Offsets of <code>{{> partial}}</code> names by the last segment of the partial path, see {@link HbIndexUtil#getPartialKey(String)}
+ */
+public class HbPartialReferenceIndex extends FileBasedIndexExtension<String, List<Integer>> {
+  public static final ID<String, List<Integer>> PARTIAL_REFERENCE_INDEX = ID.create("handlebars.partial.references");
+  private final DataIndexer<String, List<Integer>, FileContent> myDataIndexer =
+    inputData -> HbIndexUtil.indexFile(inputData).getPartialReferences();
+
+  @NotNull
+  @Override
+  public ID<String, List<Integer>> getName() {
+    return PARTIAL_REFERENCE_INDEX;
+  }
+
+  @NotNull
+  @Override
+  public DataIndexer<String, List<Integer>, FileContent> getIndexer() {
+    return myDataIndexer;
+  }
+
+  @NotNull
+  @Override
+  public KeyDescriptor<String> getKeyDescriptor() {
+    return EnumeratorStringDescriptor.INSTANCE;
+  }
+
+  @NotNull
+  @Override
+  public DataExternalizer<List<Integer>> getValueExternalizer() {
+    return HbIndexUtil.OFFSETS_EXTERNALIZER;
+  }
+
+  @NotNull
+  @Override
+  public FileBasedIndex.InputFilter getInputFilter() {
+    return HbIndexUtil.INPUT_FILTER;
+  }
+
+  @Override
+  public boolean dependsOnFileContent() {
+    return true;
+  }
+
+  @Override
+  public int getVersion() {
+    return HbIndexUtil.INDEX_VERSION;
+  }
+}
@@ -0,0 +1,79 @@
+package com.dmarcotte.handlebars.navigation;
+
+import com.dmarcotte.handlebars.file.HbFileType;
+import com.dmarcotte.handlebars.index.HbIndexUtil;
+import com.dmarcotte.handlebars.index.HbPartialDefinitionIndex;
+import com.dmarcotte.handlebars.psi.HbPartialName;
+import com.intellij.codeInsight.lookup.LookupElementBuilder;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.util.TextRange;
+import com.intellij.openapi.util.io.FileUtil;
+import com.intellij.openapi.util.text.StringUtil;
+import com.intellij.openapi.vfs.VirtualFile;
+import com.intellij.psi.*;
+import com.intellij.psi.search.GlobalSearchScope;
+import com.intellij.psi.util.PsiTreeUtil;
+import com.intellij.util.IncorrectOperationException;
+import com.intellij.util.containers.ContainerUtil;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Reference from <code>{{> path}}</code> to the templates defining the partial, resolved with {@link HbPartialDefinitionIndex}
+ */
+public class HbPartialReference extends PsiPolyVariantReferenceBase<HbPartialName> {
+  @NotNull
+  private final String myPartialPath;
+
+  public HbPartialReference(@NotNull HbPartialName element, @NotNull String partialPath) {
+    super(element, TextRange.from(element.getText().indexOf(partialPath), partialPath.length()));
+    myPartialPath = partialPath;
+  }
+
+  @NotNull
+  @Override
+  public ResolveResult[] multiResolve(boolean incompleteCode) {
+    final Project project = getElement().getProject();
+    final PsiManager psiManager = PsiManager.getInstance(project);
+    final List<PsiFile> result = new ArrayList<>();
+    for (VirtualFile file : HbPartialDefinitionIndex.findPartialFiles(myPartialPath, GlobalSearchScope.allScope(project))) {
+      ContainerUtil.addIfNotNull(result, psiManager.findFile(file));
+    }
+    return PsiElementResolveResult.createResults(result);
+  }
+
+  @NotNull
+  @Override
+  public Object[] getVariants() {
+    final Project project = getElement().getProject();
+    final List<LookupElementBuilder> result = new ArrayList<>();
+    for (String name : HbPartialDefinitionIndex.getPartialNames(GlobalSearchScope.allScope(project))) {
+      result.add(LookupElementBuilder.create(name).withIcon(HbFileType.INSTANCE.getIcon()));
+    }
+    return result.toArray();
+  }
+
+  /**
+   * Renaming a template renames the last segment of the path, keeping the leading underscore convention of the reference
+   */
+  @Override
+  public PsiElement handleElementRename(String newElementName) throws IncorrectOperationException {
+    final int lastSegmentStart = myPartialPath.lastIndexOf('/') + 1;
+    String newName = FileUtil.getNameWithoutExtension(newElementName);
+    if (!myPartialPath.startsWith("_", lastSegmentStart)) {
+      newName = StringUtil.trimStart(newName, "_");
+    }
+    final String newPath = myPartialPath.substring(0, lastSegmentStart) + newName;
+    final String newText = getRangeInElement().replace(getElement().getText(), newPath);
+
+    final PsiFile dummyFile = PsiFileFactory.getInstance(getElement().getProject())
+      .createFileFromText("dummy.hbs", HbFileType.INSTANCE, "{{> " + newText + "}}");
+    final HbPartialName newPartialName = PsiTreeUtil.findChildOfType(dummyFile, HbPartialName.class);
+    if (newPartialName == null) {
+      throw new IncorrectOperationException("Cannot rename partial " + myPartialPath + " to " + newName);
+    }
+    return getElement().replace(newPartialName);
+  }
+}
@@ -0,0 +1,53 @@
+package com.dmarcotte.handlebars.navigation;
+
+import com.dmarcotte.handlebars.HbLanguage;
+import com.dmarcotte.handlebars.file.HbFileType;
+import com.dmarcotte.handlebars.index.HbIndexUtil;
+import com.dmarcotte.handlebars.index.HbPartialReferenceIndex;
+import com.dmarcotte.handlebars.psi.HbPartialName;
+import com.intellij.openapi.application.QueryExecutorBase;
+import com.intellij.openapi.vfs.VirtualFile;
+import com.intellij.psi.*;
+import com.intellij.psi.search.GlobalSearchScope;
+import com.intellij.psi.search.SearchScope;
+import com.intellij.psi.search.searches.ReferencesSearch;
+import com.intellij.psi.util.PsiTreeUtil;
+import com.intellij.util.Processor;
+import com.intellij.util.indexing.FileBasedIndex;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Finds <code>{{> partial}}</code> usages of a template with {@link HbPartialReferenceIndex} instead of searching the text of all files
+ */
+public class HbPartialReferencesSearcher extends QueryExecutorBase<PsiReference, ReferencesSearch.SearchParameters> {
+  public HbPartialReferencesSearcher() {
+    super(true);
+  }
+
+  @Override
+  public void processQuery(@NotNull ReferencesSearch.SearchParameters queryParameters, @NotNull Processor<PsiReference> consumer) {
+    final PsiElement target = queryParameters.getElementToSearch();
+    if (!(target instanceof PsiFile)) return;
+    final VirtualFile targetFile = ((PsiFile)target).getVirtualFile();
+    final SearchScope scope = queryParameters.getEffectiveSearchScope();
+    if (targetFile == null || targetFile.getFileType() != HbFileType.INSTANCE || !(scope instanceof GlobalSearchScope)) return;
+
+    final PsiManager psiManager = target.getManager();
+    final String partialKey = HbIndexUtil.getPartialName(targetFile.getName());
+    FileBasedIndex.getInstance().processValues(HbPartialReferenceIndex.PARTIAL_REFERENCE_INDEX, partialKey, null, (file, offsets) -> {
+      final PsiFile psiFile = psiManager.findFile(file);
+      if (psiFile == null) return true;
+      for (int offset : offsets) {
+        final PsiElement element = psiFile.getViewProvider().findElementAt(offset, HbLanguage.INSTANCE);
+        final HbPartialName partialName = PsiTreeUtil.getParentOfType(element, HbPartialName.class, false);
+        if (partialName == null) continue;
+        for (PsiReference reference : partialName.getReferences()) {
+          if (reference instanceof HbPartialReference && reference.isReferenceTo(target) && !consumer.process(reference)) {
+            return false;
+          }
+        }
+      }
+      return true;
+    }, (GlobalSearchScope)scope);
+  }
+}
@@ -0,0 +1,26 @@
+package com.dmarcotte.handlebars.navigation;
+
+import com.dmarcotte.handlebars.index.HbIndexUtil;
+import com.dmarcotte.handlebars.psi.HbPartialName;
+import com.intellij.psi.*;
+import com.intellij.util.ProcessingContext;
+import org.jetbrains.annotations.NotNull;
+
+import static com.intellij.patterns.PlatformPatterns.psiElement;
+
+public class HbReferenceContributor extends PsiReferenceContributor {
+  @Override
+  public void registerReferenceProviders(@NotNull PsiReferenceRegistrar registrar) {
+    registrar.registerReferenceProvider(psiElement(HbPartialName.class), new PsiReferenceProvider() {
+      @NotNull
+      @Override
+      public PsiReference[] getReferencesByElement(@NotNull PsiElement element, @NotNull ProcessingContext context) {
+        final String partialPath = HbIndexUtil.getPartialPath((HbPartialName)element);
+        if (partialPath == null) {
+          return PsiReference.EMPTY_ARRAY;
+        }
+        return new PsiReference[]{new HbPartialReference((HbPartialName)element, partialPath)};
+      }
+    });
+  }
+}
@@ -0,0 +1,84 @@
+package com.dmarcotte.handlebars.parsing;
+
+import com.dmarcotte.handlebars.HbLanguage;
+import com.intellij.lang.ASTNode;
+import com.intellij.lang.Language;
+import com.intellij.lang.PsiBuilder;
+import com.intellij.lang.PsiBuilderFactory;
+import com.intellij.lexer.Lexer;
+import com.intellij.openapi.project.Project;
+import com.intellij.psi.PsiElement;
+import com.intellij.psi.tree.IElementType;
+import com.intellij.psi.tree.IReparseableElementType;
+import org.jetbrains.annotations.NonNls;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import static com.dmarcotte.handlebars.parsing.HbTokenTypes.*;
+
+/**
+ * Complete mustaches (an open stache followed by a matching close stache with only mustache tokens between them) are collapsed
+ * by the parser and parsed lazily, so that typing inside a mustache reparses only this mustache instead of the whole file.
+ * Their contents don't depend on anything around them as long as the new text is still a complete mustache.
+ */
+class HbMustacheElementType extends IReparseableElementType {
+  public HbMustacheElementType(@NotNull @NonNls String debugName) {
+    super(debugName, HbLanguage.INSTANCE);
+  }
+
+  @Override
+  public boolean isParsable(@Nullable ASTNode parent, CharSequence buffer, Language fileLanguage, Project project) {
+    final Lexer lexer = new HbLexer();
+    lexer.start(buffer);
+    final IElementType closeStache = getCloseStache(lexer.getTokenType());
+    if (closeStache == null) {
+      return false;
+    }
+    lexer.advance();
+    skipWhiteSpace(lexer);
+    if (lexer.getTokenType() == ELSE) {
+      // `{{else}}` is a part of a block
+      return false;
+    }
+
+    while (lexer.getTokenType() != closeStache) {
+      if (lexer.getTokenType() == null || HbParsing.NOT_IN_MUSTACHE.contains(lexer.getTokenType())) {
+        return false;
+      }
+      lexer.advance();
+    }
+    lexer.advance();
+    return lexer.getTokenType() == null;
+  }
+
+  @Override
+  protected ASTNode doParseContents(@NotNull ASTNode chameleon, @NotNull PsiElement psi) {
+    final PsiBuilder builder =
+      PsiBuilderFactory.getInstance().createBuilder(psi.getProject(), chameleon, new HbLexer(), getLanguage(), chameleon.getChars());
+    final IElementType openStache = builder.getTokenType();
+    final IElementType closeStache = getCloseStache(openStache);
+    assert closeStache != null : openStache;
+
+    final PsiBuilder.Marker root = builder.mark();
+    new HbParsing(builder).parseMustacheContents(builder, openStache, closeStache);
+    root.done(this);
+    return builder.getTreeBuilt().getFirstChildNode();
+  }
+
+  @Nullable
+  private static IElementType getCloseStache(@Nullable IElementType openStache) {
+    if (openStache == OPEN) {
+      return CLOSE;
+    }
+    if (openStache == OPEN_UNESCAPED) {
+      return CLOSE_UNESCAPED;
+    }
+    return null;
+  }
+
+  private static void skipWhiteSpace(@NotNull Lexer lexer) {
+    while (lexer.getTokenType() == WHITE_SPACE) {
+      lexer.advance();
+    }
+  }
+}
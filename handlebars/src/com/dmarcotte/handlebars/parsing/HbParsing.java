@@ -3,6 +3,7 @@ package com.dmarcotte.handlebars.parsing;
 import com.dmarcotte.handlebars.HbBundle;
 import com.intellij.lang.PsiBuilder;
 import com.intellij.psi.tree.IElementType;
+import com.intellij.psi.tree.TokenSet;
 
 import java.util.HashSet;
 import java.util.Set;
@@ -38,6 +39,12 @@ public class HbParsing {
     RECOVERY_SET.add(CONTENT);
   }
 
+  // tokens which end a mustache early, see parseLeafTokenGreedy
+  static final TokenSet NOT_IN_MUSTACHE =
+    TokenSet.orSet(TokenSet.create(RECOVERY_SET.toArray(new IElementType[0])),
+                   TokenSet.create(OPEN_INVERSE_CHAIN, OPEN_PARTIAL_BLOCK, OPEN_RAW_BLOCK, END_RAW_BLOCK, CLOSE_RAW_BLOCK,
+                                   COMMENT, UNCLOSED_COMMENT, ESCAPE_CHAR));
+
   public HbParsing(final PsiBuilder builder) {
     this.builder = builder;
   }
@@ -459,12 +466,42 @@ public class HbParsing {
    */
   protected void parseMustache(PsiBuilder builder, IElementType openStache, IElementType closeStache) {
     PsiBuilder.Marker mustacheMarker = builder.mark();
+    if (isCompleteMustache(builder, closeStache)) {
+      /* HB_CUSTOMIZATION */
+      // parsed lazily, so that editing it doesn't reparse the whole file (see HbMustacheElementType)
+      while (builder.getTokenType() != closeStache) {
+        builder.advanceLexer();
+      }
+      builder.advanceLexer();
+      mustacheMarker.collapse(MUSTACHE);
+      return;
+    }
+    parseMustacheContents(builder, openStache, closeStache);
+    mustacheMarker.done(MUSTACHE);
+  }
+
+  void parseMustacheContents(PsiBuilder builder, IElementType openStache, IElementType closeStache) {
     parseLeafToken(builder, openStache);
     if (parseHelperName(builder)) {
       parseParamsStartHashQuestion(builder);
     }
     parseLeafTokenGreedy(builder, closeStache);
-    mustacheMarker.done(MUSTACHE);
+  }
+
+  /**
+   * @return true if the open stache the builder is at is followed by <code>closeStache</code> with no tokens
+   * which would end the mustache early between them
+   */
+  private static boolean isCompleteMustache(PsiBuilder builder, IElementType closeStache) {
+    for (int i = 1; ; i++) {
+      IElementType tokenType = builder.lookAhead(i);
+      if (tokenType == closeStache) {
+        return true;
+      }
+      if (tokenType == null || NOT_IN_MUSTACHE.contains(tokenType)) {
+        return false;
+      }
+    }
   }
 
   /**
@@ -20,7 +20,7 @@ public class HbTokenTypes {
   public static final IElementType OPEN_PARTIAL_BLOCK_STACHE = new HbCompositeElementType("OPEN_PARTIAL_BLOCK_STACHE");
   public static final IElementType OPEN_INVERSE_BLOCK_STACHE = new HbCompositeElementType("OPEN_INVERSE_BLOCK_STACHE");
   public static final IElementType CLOSE_BLOCK_STACHE = new HbCompositeElementType("CLOSE_BLOCK_STACHE");
-  public static final IElementType MUSTACHE = new HbCompositeElementType("MUSTACHE");
+  public static final IElementType MUSTACHE = new HbMustacheElementType("MUSTACHE");
   public static final IElementType MUSTACHE_NAME = new HbCompositeElementType("MUSTACHE_NAME");
   public static final IElementType PATH = new HbCompositeElementType("PATH");
   public static final IElementType PARAM = new HbCompositeElementType("PARAM");
@@ -42,11 +42,13 @@ public class HbPsiUtil {
    * Tests to see if the given element is not the "root" statements expression of the grammar
    */
   public static boolean isNonRootStatementsElement(PsiElement element) {
+    if (!(element instanceof HbStatements)) {
+      return false;
+    }
     PsiElement statementsParent = PsiTreeUtil.findFirstParent(element, true, element1 -> element1 != null
                                                                                          && element1 instanceof HbStatements);
 
-    // we're a non-root statements if we're of type statements, and we have a statements parent
-    return element instanceof HbStatements
-           && statementsParent != null;
+    // we're a non-root statements if we have a statements parent
+    return statementsParent != null;
   }
 }
@@ -16,4 +16,10 @@ public class HbKeywordCompletionTest extends LightPlatformCodeInsightFixtureTest
   public void testSimple() {
     doBasicTest("{{#<caret>}}", "if", "each");
   }
+
+  public void testHelperNames() {
+    myFixture.addFileToProject("other.hbs", "{{formatDate created \"short\"}}{{#ifEqual a b}}{{/ifEqual}}{{title}}");
+    doBasicTest("{{<caret>}}", "formatDate", "ifEqual");
+    assertDoesntContain(myFixture.getLookupElementStrings(), "title");
+  }
 }
@@ -0,0 +1,66 @@
+package com.dmarcotte.handlebars.format;
+
+import com.intellij.openapi.command.WriteCommandAction;
+import com.intellij.openapi.editor.Document;
+import com.intellij.psi.PsiDocumentManager;
+import com.intellij.psi.PsiFile;
+import com.intellij.psi.codeStyle.CodeStyleManager;
+import com.intellij.testFramework.PlatformTestUtil;
+
+public class HbFormatterPerformanceTest extends HbFormatterTest {
+  private static final int NESTING_DEPTH = 8;
+  private static final int TEMPLATE_COPIES = 54;
+
+  public void testFullFileReformat() {
+    final PsiFile file = myFixture.configureByText("A.hbs", generateTemplate());
+
+    PlatformTestUtil.startPerformanceTest("Handlebars full-file reformat", 3000, () -> {
+      reformat(file, 0, file.getTextLength());
+    }).assertTiming();
+
+    // formatting is stable, a second pass doesn't change anything
+    final String formatted = file.getText();
+    reformat(file, 0, file.getTextLength());
+    assertEquals(formatted, file.getText());
+  }
+
+  public void testRangeReformat() {
+    final PsiFile file = myFixture.configureByText("A.hbs", generateTemplate());
+    final Document document = PsiDocumentManager.getInstance(getProject()).getDocument(file);
+    assertNotNull(document);
+    final int middleLine = document.getLineCount() / 2;
+
+    PlatformTestUtil.startPerformanceTest("Handlebars range reformat", 500, () -> {
+      for (int line = middleLine; line < middleLine + 20; line++) {
+        reformat(file, document.getLineStartOffset(line), document.getLineEndOffset(line));
+      }
+    }).assertTiming();
+  }
+
+  private void reformat(PsiFile file, int startOffset, int endOffset) {
+    WriteCommandAction.runWriteCommandAction(getProject(), () -> {
+      CodeStyleManager.getInstance(getProject()).reformatText(file, startOffset, endOffset);
+    });
+  }
+
+  /**
+   * Generates an unindented template of about 3000 lines with nested blocks interleaved with html tags
+   */
+  private static String generateTemplate() {
+    final StringBuilder result = new StringBuilder();
+    for (int i = 0; i < TEMPLATE_COPIES; i++) {
+      for (int depth = 0; depth < NESTING_DEPTH; depth++) {
+        result.append("<div class=\"level").append(depth).append("\">\n");
+        result.append(depth % 2 == 0 ? "{{#each items" : "{{#if item").append(depth).append("}}\n");
+        result.append("<span>{{name}} {{format date \"short\" locale=locale}}</span>\n");
+      }
+      for (int depth = NESTING_DEPTH - 1; depth >= 0; depth--) {
+        result.append("{{else}}\n");
+        result.append("<p>{{> empty}}</p>\n");
+        result.append(depth % 2 == 0 ? "{{/each}}\n" : "{{/if}}\n");
+        result.append("</div>\n");
+      }
+    }
+    return result.toString();
+  }
+}
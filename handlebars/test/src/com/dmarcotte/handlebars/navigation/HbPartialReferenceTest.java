@@ -0,0 +1,70 @@
+package com.dmarcotte.handlebars.navigation;
+
+import com.dmarcotte.handlebars.file.HbFileType;
+import com.intellij.codeInsight.completion.CompletionType;
+import com.intellij.psi.PsiFile;
+import com.intellij.psi.PsiPolyVariantReference;
+import com.intellij.psi.PsiReference;
+import com.intellij.psi.ResolveResult;
+import com.intellij.psi.search.searches.ReferencesSearch;
+import com.intellij.testFramework.fixtures.LightPlatformCodeInsightFixtureTestCase;
+
+import java.util.Collection;
+
+public class HbPartialReferenceTest extends LightPlatformCodeInsightFixtureTestCase {
+  public void testResolveByName() {
+    final PsiFile partial = myFixture.addFileToProject("templates/user.hbs", "<b>{{name}}</b>");
+    myFixture.configureByText(HbFileType.INSTANCE, "{{> us<caret>er}}");
+    assertEquals(partial, resolveSingle());
+  }
+
+  public void testResolveQuotedNameWithUnderscore() {
+    final PsiFile partial = myFixture.addFileToProject("templates/_user.hbs", "<b>{{name}}</b>");
+    myFixture.configureByText(HbFileType.INSTANCE, "{{> 'us<caret>er'}}");
+    assertEquals(partial, resolveSingle());
+  }
+
+  public void testResolveByPath() {
+    myFixture.addFileToProject("templates/user.hbs", "<b>{{name}}</b>");
+    final PsiFile partial = myFixture.addFileToProject("templates/admin/user.handlebars", "<i>{{name}}</i>");
+    myFixture.configureByText(HbFileType.INSTANCE, "{{> admin/us<caret>er}}");
+    assertEquals(partial, resolveSingle());
+  }
+
+  public void testPartialBlock() {
+    final PsiFile partial = myFixture.addFileToProject("layout.hbs", "<div>{{> @partial-block}}</div>");
+    myFixture.configureByText(HbFileType.INSTANCE, "{{#> lay<caret>out}}content{{/layout}}");
+    assertEquals(partial, resolveSingle());
+  }
+
+  public void testCompletion() {
+    myFixture.addFileToProject("templates/userCard.hbs", "");
+    myFixture.addFileToProject("templates/_userList.hbs", "");
+    myFixture.configureByText(HbFileType.INSTANCE, "{{> us<caret>}}");
+    myFixture.complete(CompletionType.BASIC);
+    assertContainsElements(myFixture.getLookupElementStrings(), "userCard", "userList");
+  }
+
+  public void testFindUsages() {
+    final PsiFile partial = myFixture.addFileToProject("templates/_user.hbs", "<b>{{name}}</b>");
+    myFixture.addFileToProject("page.hbs", "{{#each users}}{{> user}}{{/each}}{{> 'user' role=admin}}");
+    myFixture.addFileToProject("admin/page.hbs", "{{> templates/user}}{{> other}}");
+    final Collection<PsiReference> references = ReferencesSearch.search(partial).findAll();
+    assertEquals(3, references.size());
+  }
+
+  public void testRename() {
+    myFixture.addFileToProject("templates/_user.hbs", "<b>{{name}}</b>");
+    myFixture.configureByText(HbFileType.INSTANCE, "{{> templates/us<caret>er}}");
+    myFixture.renameElement(resolveSingle(), "_member.hbs");
+    myFixture.checkResult("{{> templates/member}}");
+  }
+
+  private PsiFile resolveSingle() {
+    final PsiReference reference = myFixture.getFile().findReferenceAt(myFixture.getCaretOffset());
+    assertInstanceOf(reference, PsiPolyVariantReference.class);
+    final ResolveResult[] results = ((PsiPolyVariantReference)reference).multiResolve(false);
+    assertEquals(1, results.length);
+    return assertInstanceOf(results[0].getElement(), PsiFile.class);
+  }
+}
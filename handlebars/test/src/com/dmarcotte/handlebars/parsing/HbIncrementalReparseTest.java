@@ -0,0 +1,108 @@
+package com.dmarcotte.handlebars.parsing;
+
+import com.dmarcotte.handlebars.file.HbFileType;
+import com.intellij.openapi.util.text.StringUtil;
+import com.intellij.psi.PsiDocumentManager;
+import com.intellij.psi.PsiFile;
+import com.intellij.psi.PsiFileFactory;
+import com.intellij.psi.impl.DebugUtil;
+import com.intellij.testFramework.PlatformTestUtil;
+import com.intellij.testFramework.fixtures.LightPlatformCodeInsightFixtureTestCase;
+
+public class HbIncrementalReparseTest extends LightPlatformCodeInsightFixtureTestCase {
+  private static final int TEMPLATE_COPIES = 500;
+  private static final String TEMPLATE =
+    "<div class=\"{{itemClass}}\">\n" +
+    "  {{#if items}}\n" +
+    "    <ul>\n" +
+    "      {{#each items}}\n" +
+    "        <li>{{name}} {{{description}}} {{format date \"short\"}}</li>\n" +
+    "      {{else}}\n" +
+    "        <li>{{> emptyItem}}</li>\n" +
+    "      {{/each}}\n" +
+    "    </ul>\n" +
+    "  {{/if}}\n" +
+    "  <p>Some text</p>\n" +
+    "</div>\n";
+
+  public void testTypingInMustache() {
+    configureLongTemplate("{{name<caret>}}");
+    doTypingTest("Typing in Handlebars mustache", "Ab", 100);
+  }
+
+  public void testTypingInUnescapedMustache() {
+    configureLongTemplate("{{{description<caret>}}}");
+    doTypingTest("Typing in Handlebars unescaped mustache", "Ab", 100);
+  }
+
+  public void testTypingInHtml() {
+    configureLongTemplate("<p>Some <caret>text</p>");
+    doTypingTest("Typing in Handlebars template data", "Ab", 200);
+  }
+
+  public void testTypingCloseStacheInMustache() {
+    configureLongTemplate("{{name<caret>}}");
+    myFixture.type("}} {{other");
+    PsiDocumentManager.getInstance(getProject()).commitAllDocuments();
+    assertTreeMatchesFullReparse();
+  }
+
+  public void testTypingElseInMustache() {
+    configureLongTemplate("{{<caret>name}}");
+    myFixture.type("else ");
+    PsiDocumentManager.getInstance(getProject()).commitAllDocuments();
+    assertTreeMatchesFullReparse();
+  }
+
+  private void doTypingTest(String message, String text, int expectedMs) {
+    PlatformTestUtil.startPerformanceTest(message, expectedMs, () -> {
+      for (int i = 0; i < 10; i++) {
+        myFixture.type(text);
+        PsiDocumentManager.getInstance(getProject()).commitAllDocuments();
+      }
+    }).assertTiming();
+    assertTreeMatchesFullReparse();
+
+    // an edit should cost a fraction of reparsing the whole template, whatever the speed of the machine
+    final long typing = measureBest(() -> {
+      myFixture.type(text);
+      PsiDocumentManager.getInstance(getProject()).commitAllDocuments();
+    });
+    final String fileText = myFixture.getFile().getText();
+    final long fullReparse = measureBest(() -> createFile(fileText).getNode().getLastChildNode());
+    assertTrue(message + ": " + typing + "ns per edit, " + fullReparse + "ns per full reparse", typing * 3 < fullReparse);
+  }
+
+  /**
+   * @return the best time of several runs in nanoseconds, so that GC pauses and JIT warm-up don't decide the result
+   */
+  private static long measureBest(Runnable action) {
+    long best = Long.MAX_VALUE;
+    for (int i = 0; i < 10; i++) {
+      final long start = System.nanoTime();
+      action.run();
+      best = Math.min(best, System.nanoTime() - start);
+    }
+    return best;
+  }
+
+  /**
+   * The edited mustache is placed in the middle of a long template, the caret is put where the "<caret>" marker of the mustache is
+   */
+  private void configureLongTemplate(String editedMustache) {
+    final String template = StringUtil.repeat(TEMPLATE, TEMPLATE_COPIES / 2) +
+                            TEMPLATE.replace(editedMustache.replace("<caret>", ""), editedMustache) +
+                            StringUtil.repeat(TEMPLATE, TEMPLATE_COPIES / 2);
+    myFixture.configureByText(HbFileType.INSTANCE, template);
+  }
+
+  private void assertTreeMatchesFullReparse() {
+    final PsiFile file = myFixture.getFile();
+    final PsiFile reparsed = createFile(file.getText());
+    assertEquals(DebugUtil.psiToString(reparsed, false, false), DebugUtil.psiToString(file, false, false));
+  }
+
+  private PsiFile createFile(String text) {
+    return PsiFileFactory.getInstance(getProject()).createFileFromText("reparsed.hbs", HbFileType.INSTANCE, text);
+  }
+}
@@ -0,0 +1,73 @@
+if (window.__IntelliJTools === undefined) {
+  window.__IntelliJTools = {}
+}
+
+window.__IntelliJTools.replaceBlocks = (function () {
+  var BLOCK_MARKER = 'md-block';
+
+  var getBlockStarts = function (body) {
+    var result = [];
+    for (var child = body.firstChild; child !== null; child = child.nextSibling) {
+      if (child.nodeType === Node.COMMENT_NODE && child.nodeValue === BLOCK_MARKER) {
+        result.push(child)
+      }
+    }
+    return result
+  }
+
+  var shiftSrcRange = function (element, attributeName, delta) {
+    var fromTo = element.getAttribute(attributeName).split('..');
+    element.setAttribute(attributeName, (parseInt(fromTo[0]) + delta) + '..' + (parseInt(fromTo[1]) + delta))
+  }
+
+  var shiftSrcRanges = function (node, attributeName, delta) {
+    for (; node !== null; node = node.nextSibling) {
+      if (node.nodeType !== Node.ELEMENT_NODE) {
+        continue
+      }
+      if (node.hasAttribute(attributeName)) {
+        shiftSrcRange(node, attributeName, delta)
+      }
+      var children = node.querySelectorAll('[' + attributeName + ']');
+      for (var i = 0; i < children.length; i++) {
+        shiftSrcRange(children[i], attributeName, delta)
+      }
+    }
+  }
+
+  /**
+   * Replaces <code>removedCount</code> blocks starting at <code>from</code> with <code>html</code> and moves source ranges
+   * of the following blocks by <code>delta</code>.
+   * Returns false if the page does not have <code>blockCount</code> blocks, it has to be reloaded then.
+   */
+  return function (from, removedCount, blockCount, html, attributeName, bodySrcRange, delta) {
+    var body = document.body;
+    if (!body) {
+      return false
+    }
+    var starts = getBlockStarts(body);
+    if (starts.length !== blockCount) {
+      return false
+    }
+
+    var end = from + removedCount < starts.length ? starts[from + removedCount] : null;
+    var node = from < starts.length ? starts[from] : null;
+    while (node !== null && node !== end) {
+      var next = node.nextSibling;
+      body.removeChild(node);
+      node = next
+    }
+
+    var container = document.createElement('div');
+    container.innerHTML = html;
+    while (container.firstChild) {
+      body.insertBefore(container.firstChild, end)
+    }
+
+    if (delta !== 0) {
+      shiftSrcRanges(end, attributeName, delta)
+    }
+    body.setAttribute(attributeName, bodySrcRange);
+    return true
+  }
+})()
@@ -8,7 +8,7 @@ import org.intellij.plugins.markdown.lang.lexer.MarkdownToplevelLexer;
 
 public class MarkdownHighlightingLexer extends LayeredLexer {
   public MarkdownHighlightingLexer() {
-    super(new MarkdownToplevelLexer());
+    super(new MarkdownToplevelLexer(true));
 
     registerSelfStoppingLayer(new MarkdownLexerAdapter(), MarkdownTokenTypeSets.INLINE_HOLDING_ELEMENT_TYPES.getTypes(),
                               IElementType.EMPTY_ARRAY);
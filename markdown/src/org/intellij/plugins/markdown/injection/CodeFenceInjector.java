@@ -24,6 +24,9 @@ public class CodeFenceInjector implements MultiHostInjector {
     if (PsiTreeUtil.findChildOfType(context, MarkdownCodeFenceContentImpl.class) == null) {
       return;
     }
+    if (!isInjectionAllowed((MarkdownCodeFenceImpl)context)) {
+      return;
+    }
 
     final Language language = findLangForInjection(((MarkdownCodeFenceImpl)context));
     if (language == null || LanguageParserDefinitions.INSTANCE.forLanguage(language) == null) {
@@ -48,6 +51,10 @@ public class CodeFenceInjector implements MultiHostInjector {
     return Collections.singletonList(MarkdownCodeFenceImpl.class);
   }
 
+  protected boolean isInjectionAllowed(@NotNull MarkdownCodeFenceImpl element) {
+    return LazyCodeFenceInjection.getInstance(element.getProject()).isInjectionAllowed(element);
+  }
+
   @Nullable
   protected Language findLangForInjection(@NotNull MarkdownCodeFenceImpl element) {
     final String fenceLanguage = element.getFenceLanguage();
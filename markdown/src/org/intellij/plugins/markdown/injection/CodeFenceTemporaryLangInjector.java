@@ -9,6 +9,12 @@ import org.jetbrains.annotations.Nullable;
 
 public class CodeFenceTemporaryLangInjector extends CodeFenceInjector {
 
+  @Override
+  protected boolean isInjectionAllowed(@NotNull MarkdownCodeFenceImpl element) {
+    // injected explicitly by the user
+    return true;
+  }
+
   @Nullable
   @Override
   protected Language findLangForInjection(@NotNull MarkdownCodeFenceImpl element) {
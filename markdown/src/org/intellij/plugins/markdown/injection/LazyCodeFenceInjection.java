@@ -0,0 +1,235 @@
+package org.intellij.plugins.markdown.injection;
+
+import com.intellij.codeInsight.daemon.DaemonCodeAnalyzer;
+import com.intellij.codeInsight.daemon.impl.DaemonProgressIndicator;
+import com.intellij.lang.ASTNode;
+import com.intellij.openapi.application.Application;
+import com.intellij.openapi.application.ApplicationManager;
+import com.intellij.openapi.components.ServiceManager;
+import com.intellij.openapi.editor.Document;
+import com.intellij.openapi.editor.Editor;
+import com.intellij.openapi.editor.EditorFactory;
+import com.intellij.openapi.editor.RangeMarker;
+import com.intellij.openapi.editor.event.EditorFactoryAdapter;
+import com.intellij.openapi.editor.event.EditorFactoryEvent;
+import com.intellij.openapi.fileEditor.FileDocumentManager;
+import com.intellij.openapi.progress.ProgressManager;
+import com.intellij.openapi.progress.util.ProgressWrapper;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.util.Key;
+import com.intellij.openapi.util.TextRange;
+import com.intellij.openapi.util.UserDataHolderEx;
+import com.intellij.openapi.util.registry.Registry;
+import com.intellij.openapi.vfs.VirtualFile;
+import com.intellij.psi.PsiDocumentManager;
+import com.intellij.psi.PsiFile;
+import com.intellij.psi.tree.ILazyParseableElementType;
+import com.intellij.psi.util.CachedValueProvider;
+import com.intellij.psi.util.CachedValuesManager;
+import com.intellij.util.Alarm;
+import com.intellij.util.containers.ContainerUtil;
+import org.intellij.plugins.markdown.lang.MarkdownElementTypes;
+import org.intellij.plugins.markdown.lang.MarkdownFileType;
+import org.intellij.plugins.markdown.lang.psi.impl.MarkdownCodeFenceImpl;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.awt.*;
+import java.util.Iterator;
+import java.util.LinkedList;
+import java.util.Map;
+
+/**
+ * Chooses code fences to inject languages into while the daemon highlights documents with many fences open in editors, so that
+ * opening a long document doesn't create injected files and highlighting for all of its fences at once. Fences within a screen from
+ * the visible area of an editor are injected.
+ * <p/>
+ * Hosts without injections are asked again on the next highlighting pass, so scrolling out of the range injected before only restarts
+ * the daemon for the file. Injections aren't dropped when their fences are scrolled away: fences injected once keep their injections
+ * until the document is changed. After a change, the last {@link #MAX_KEPT_FENCES} fences injected are injected again even if they
+ * aren't visible, so that editing doesn't remove the injections the user has just seen.
+ * Other clients, e.g. batch inspections or find usages, and documents without editors have all their fences injected.
+ */
+public class LazyCodeFenceInjection {
+  private static final int MIN_FENCES_FOR_LAZY_INJECTION = 30;
+  private static final int MAX_KEPT_FENCES = 50;
+  private static final int REFRESH_DELAY_MS = 300;
+  private static final Key<DocumentFences> DOCUMENT_FENCES = Key.create("markdown.code.fence.injections");
+
+  private final Project myProject;
+  private final Alarm myRefreshAlarm;
+
+  public LazyCodeFenceInjection(@NotNull Project project) {
+    myProject = project;
+    myRefreshAlarm = new Alarm(Alarm.ThreadToUse.SWING_THREAD, project);
+
+    EditorFactory.getInstance().addEditorFactoryListener(new EditorFactoryAdapter() {
+      @Override
+      public void editorCreated(@NotNull EditorFactoryEvent event) {
+        editorOpened(event.getEditor());
+      }
+
+      @Override
+      public void editorReleased(@NotNull EditorFactoryEvent event) {
+        final DocumentFences fences = event.getEditor().getDocument().getUserData(DOCUMENT_FENCES);
+        if (fences != null) {
+          fences.myInjectionRanges.remove(event.getEditor());
+        }
+      }
+    }, project);
+    // the service is created on the first injection, i.e. after the editors showing it are, possibly in a highlighting thread
+    final Application application = ApplicationManager.getApplication();
+    if (application.isDispatchThread()) {
+      registerOpenEditors();
+    }
+    else {
+      application.invokeLater(this::registerOpenEditors, project.getDisposed());
+    }
+  }
+
+  private void registerOpenEditors() {
+    for (Editor editor : EditorFactory.getInstance().getAllEditors()) {
+      editorOpened(editor);
+    }
+  }
+
+  public static LazyCodeFenceInjection getInstance(@NotNull Project project) {
+    return ServiceManager.getService(project, LazyCodeFenceInjection.class);
+  }
+
+  public boolean isInjectionAllowed(@NotNull MarkdownCodeFenceImpl fence) {
+    if (!Registry.is("markdown.lazy.code.fence.injection", true) || !isEditorHighlighting()) {
+      return true;
+    }
+    final PsiFile file = fence.getContainingFile();
+    final Document document = PsiDocumentManager.getInstance(myProject).getDocument(file);
+    final DocumentFences fences = document != null ? document.getUserData(DOCUMENT_FENCES) : null;
+    if (fences == null || fences.myInjectionRanges.isEmpty() || getFenceCount(file) < MIN_FENCES_FOR_LAZY_INJECTION) {
+      return true;
+    }
+    return fences.isInjectionAllowed(document, fence.getTextRange());
+  }
+
+  private void editorOpened(@NotNull Editor editor) {
+    if (editor.getProject() != myProject || !isMarkdown(editor.getDocument())) {
+      return;
+    }
+    final DocumentFences fences = getDocumentFences(editor.getDocument());
+    if (fences.myInjectionRanges.putIfAbsent(editor, TextRange.EMPTY_RANGE) != null) {
+      return;
+    }
+    editor.getScrollingModel().addVisibleAreaListener(e -> visibleAreaChanged(editor));
+  }
+
+  /**
+   * @return true if injections are computed by the daemon highlighting an editor, the only client that needs just the visible fences
+   */
+  private static boolean isEditorHighlighting() {
+    return ProgressWrapper.unwrap(ProgressManager.getGlobalProgressIndicator()) instanceof DaemonProgressIndicator;
+  }
+
+  private void visibleAreaChanged(@NotNull Editor editor) {
+    final Rectangle visibleArea = editor.getScrollingModel().getVisibleArea();
+    if (visibleArea.height <= 0) {
+      return;
+    }
+    final TextRange visibleRange = getRange(editor, visibleArea.y, visibleArea.y + visibleArea.height);
+    final DocumentFences fences = getDocumentFences(editor.getDocument());
+    final TextRange injectionRange = fences.myInjectionRanges.get(editor);
+    if (injectionRange != null && injectionRange.contains(visibleRange)) {
+      return;
+    }
+
+    fences.myInjectionRanges.put(editor, getRange(editor, visibleArea.y - visibleArea.height, visibleArea.y + 2 * visibleArea.height));
+    final PsiFile file = PsiDocumentManager.getInstance(myProject).getCachedPsiFile(editor.getDocument());
+    if (file == null || getFenceCount(file) < MIN_FENCES_FOR_LAZY_INJECTION) {
+      return;
+    }
+    myRefreshAlarm.cancelAllRequests();
+    myRefreshAlarm.addRequest(() -> {
+      if (file.isValid()) {
+        DaemonCodeAnalyzer.getInstance(myProject).restart(file);
+      }
+    }, REFRESH_DELAY_MS);
+  }
+
+  @NotNull
+  private static TextRange getRange(@NotNull Editor editor, int startY, int endY) {
+    final int startOffset = editor.logicalPositionToOffset(editor.xyToLogicalPosition(new Point(0, Math.max(startY, 0))));
+    final int endOffset = editor.logicalPositionToOffset(editor.xyToLogicalPosition(new Point(0, endY)));
+    final int lineEnd = editor.getDocument().getLineEndOffset(editor.getDocument().getLineNumber(endOffset));
+    return new TextRange(startOffset, Math.max(startOffset, lineEnd));
+  }
+
+  @NotNull
+  private static DocumentFences getDocumentFences(@NotNull Document document) {
+    final DocumentFences fences = document.getUserData(DOCUMENT_FENCES);
+    return fences != null ? fences : ((UserDataHolderEx)document).putUserDataIfAbsent(DOCUMENT_FENCES, new DocumentFences());
+  }
+
+  private static boolean isMarkdown(@NotNull Document document) {
+    final VirtualFile file = FileDocumentManager.getInstance().getFile(document);
+    return file != null && file.getFileType() == MarkdownFileType.INSTANCE;
+  }
+
+  private static int getFenceCount(@NotNull PsiFile file) {
+    return CachedValuesManager.getCachedValue(file, () -> CachedValueProvider.Result.create(countFences(file.getNode()), file));
+  }
+
+  /**
+   * Doesn't go into lazy elements: fences are never inside them, and counting should not parse them
+   */
+  private static int countFences(@Nullable ASTNode node) {
+    int result = 0;
+    for (ASTNode child = node != null ? node.getFirstChildNode() : null; child != null; child = child.getTreeNext()) {
+      if (child.getElementType() == MarkdownElementTypes.CODE_FENCE) {
+        result++;
+      }
+      else if (!(child.getElementType() instanceof ILazyParseableElementType)) {
+        result += countFences(child);
+      }
+    }
+    return result;
+  }
+
+  private static class DocumentFences {
+    // editor -> range where fences are injected
+    private final Map<Editor, TextRange> myInjectionRanges = ContainerUtil.newConcurrentMap();
+    // fences injected recently, most recent first, injected again after a change of the document
+    private final LinkedList<RangeMarker> myInjectedFences = new LinkedList<>();
+
+    private boolean isInjectionAllowed(@NotNull Document document, @NotNull TextRange fenceRange) {
+      boolean visible = false;
+      for (TextRange range : myInjectionRanges.values()) {
+        if (range.intersects(fenceRange)) {
+          visible = true;
+          break;
+        }
+      }
+
+      synchronized (myInjectedFences) {
+        for (Iterator<RangeMarker> iterator = myInjectedFences.iterator(); iterator.hasNext(); ) {
+          final RangeMarker marker = iterator.next();
+          if (!marker.isValid()) {
+            iterator.remove();
+          }
+          else if (marker.getStartOffset() == fenceRange.getStartOffset()) {
+            if (visible) {
+              iterator.remove();
+              myInjectedFences.addFirst(marker);
+            }
+            return true;
+          }
+        }
+        if (!visible) {
+          return false;
+        }
+        myInjectedFences.addFirst(document.createRangeMarker(fenceRange));
+        if (myInjectedFences.size() > MAX_KEPT_FENCES) {
+          myInjectedFences.removeLast().dispose();
+        }
+        return true;
+      }
+    }
+  }
+}
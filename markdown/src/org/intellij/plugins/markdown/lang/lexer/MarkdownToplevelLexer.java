@@ -2,75 +2,113 @@ package org.intellij.plugins.markdown.lang.lexer;
 
 import com.intellij.lexer.LexerBase;
 import com.intellij.psi.tree.IElementType;
+import com.intellij.util.ArrayUtil;
+import org.intellij.markdown.MarkdownElementTypes;
 import org.intellij.markdown.ast.ASTNode;
 import org.intellij.markdown.ast.ASTNodeKt;
 import org.intellij.markdown.ast.visitors.RecursiveVisitor;
+import org.intellij.markdown.parser.MarkdownParser;
 import org.intellij.plugins.markdown.lang.MarkdownElementType;
 import org.intellij.plugins.markdown.lang.parser.MarkdownParserManager;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
-import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
+/**
+ * Lexemes are the leaves of the markdown AST. Lexemes starting the line of a top-level block have {@link #BLOCK_START_STATE}:
+ * blocks which are followed by another one are closed, so lexing started from such a line gives the same lexemes.
+ * <p/>
+ * The incremental lexer parses the text in chunks ending before the last top-level block of the chunk (the one that might continue
+ * after the chunk end), so the highlighter restarting it after an edit parses only a few blocks around the edit instead of the rest
+ * of the document. The non-incremental one parses the whole range at once and shares the result with the PSI parser.
+ */
 public class MarkdownToplevelLexer extends LexerBase {
+  public static final int BLOCK_START_STATE = 0;
+  private static final int INSIDE_BLOCK_STATE = 1;
+  private static final int MIN_CHUNK_LENGTH = 8192;
+
+  private final boolean myIncremental;
+
   private CharSequence myBuffer;
-  private int myBufferStart;
   private int myBufferEnd;
+  // the text is parsed up to this offset
+  private int myParsedEnd;
 
-  private List<IElementType> myLexemes;
-  private List<Integer> myStartOffsets;
-  private List<Integer> myEndOffsets;
+  private IElementType[] myLexemes = new IElementType[16];
+  private int[] myStartOffsets = new int[16];
+  private int[] myEndOffsets = new int[16];
+  private boolean[] myBlockStarts = new boolean[16];
+  private int myLexemeCount;
 
   private int myLexemeIndex;
 
+  public MarkdownToplevelLexer() {
+    this(false);
+  }
+
+  public MarkdownToplevelLexer(boolean incremental) {
+    myIncremental = incremental;
+  }
+
   @Override
   public void start(@NotNull CharSequence buffer, int startOffset, int endOffset, int initialState) {
     myBuffer = buffer;
-    myBufferStart = startOffset;
     myBufferEnd = endOffset;
+    myParsedEnd = startOffset;
 
-    final ASTNode parsedTree = MarkdownParserManager.parseContent(buffer.subSequence(startOffset, endOffset));
-    myLexemes = new ArrayList<>();
-    myStartOffsets = new ArrayList<>();
-    myEndOffsets = new ArrayList<>();
-    ASTNodeKt.accept(parsedTree, new LexerBuildingVisitor());
+    if (myIncremental) {
+      parseNextChunk();
+    }
+    else {
+      myLexemeCount = 0;
+      addLexemes(MarkdownParserManager.parseContent(buffer.subSequence(startOffset, endOffset)), startOffset, endOffset);
+      myParsedEnd = endOffset;
+    }
     myLexemeIndex = 0;
   }
 
   @Override
   public int getState() {
-    return myLexemeIndex;
+    if (myLexemeIndex >= myLexemeCount) {
+      return BLOCK_START_STATE;
+    }
+    return myBlockStarts[myLexemeIndex] ? BLOCK_START_STATE : INSIDE_BLOCK_STATE;
   }
 
   @Nullable
   @Override
   public IElementType getTokenType() {
-    if (myLexemeIndex >= myLexemes.size()) {
+    if (myLexemeIndex >= myLexemeCount) {
       return null;
     }
-    return myLexemes.get(myLexemeIndex);
+    return myLexemes[myLexemeIndex];
   }
 
   @Override
   public int getTokenStart() {
-    if (myLexemeIndex >= myLexemes.size()) {
+    if (myLexemeIndex >= myLexemeCount) {
       return myBufferEnd;
     }
-    return myBufferStart + myStartOffsets.get(myLexemeIndex);
+    return myStartOffsets[myLexemeIndex];
   }
 
   @Override
   public int getTokenEnd() {
-    if (myLexemeIndex >= myLexemes.size()) {
+    if (myLexemeIndex >= myLexemeCount) {
       return myBufferEnd;
     }
-    return myBufferStart + myEndOffsets.get(myLexemeIndex);
+    return myEndOffsets[myLexemeIndex];
   }
 
   @Override
   public void advance() {
     myLexemeIndex++;
+    if (myLexemeIndex >= myLexemeCount && myParsedEnd < myBufferEnd) {
+      parseNextChunk();
+      myLexemeIndex = 0;
+    }
   }
 
   @NotNull
@@ -84,7 +122,103 @@ public class MarkdownToplevelLexer extends LexerBase {
     return myBufferEnd;
   }
 
+  private void parseNextChunk() {
+    myLexemeCount = 0;
+    // e.g. an empty document or a restart at the end of the text
+    if (myParsedEnd >= myBufferEnd) return;
+
+    int length = MIN_CHUNK_LENGTH;
+    while (true) {
+      final int chunkEnd = myBufferEnd - myParsedEnd <= length ? myBufferEnd : myParsedEnd + length;
+      // chunks are not worth caching, they are only parsed again after an edit nearby
+      final ASTNode parsedTree = new MarkdownParser(MarkdownParserManager.FLAVOUR)
+        .parse(MarkdownElementTypes.MARKDOWN_FILE, myBuffer.subSequence(myParsedEnd, chunkEnd).toString(), false);
+      final int cut = chunkEnd == myBufferEnd ? chunkEnd : findLastBlockLineStart(parsedTree, myParsedEnd);
+      if (cut > myParsedEnd) {
+        addLexemes(parsedTree, myParsedEnd, cut);
+        myParsedEnd = cut;
+        return;
+      }
+      // the chunk is a single block
+      length *= 2;
+    }
+  }
+
+  /**
+   * @return start of the line the last top-level block of the chunk starts at, or the chunk start if there is only one block
+   */
+  private int findLastBlockLineStart(@NotNull ASTNode parsedTree, int chunkStart) {
+    final List<ASTNode> children = parsedTree.getChildren();
+    for (int i = children.size() - 1; i >= 0; i--) {
+      final ASTNode child = children.get(i);
+      if (!child.getChildren().isEmpty()) {
+        return getLineStart(chunkStart, chunkStart + child.getStartOffset());
+      }
+    }
+    return chunkStart;
+  }
+
+  private int getLineStart(int limit, int offset) {
+    while (offset > limit && myBuffer.charAt(offset - 1) != '\n') {
+      offset--;
+    }
+    return offset;
+  }
+
+  /**
+   * Adds leaves of the tree ending before <code>cut</code>, <code>offset</code> is the buffer offset the tree was parsed from
+   */
+  private void addLexemes(@NotNull ASTNode parsedTree, int offset, int cut) {
+    final int firstLexeme = myLexemeCount;
+    int previousBlockEnd = offset;
+    for (ASTNode child : parsedTree.getChildren()) {
+      if (offset + child.getEndOffset() > cut) break;
+
+      final int count = myLexemeCount;
+      ASTNodeKt.accept(child, new LexerBuildingVisitor(offset));
+      if (!child.getChildren().isEmpty()) {
+        final int lineStart = getLineStart(previousBlockEnd, offset + child.getStartOffset());
+        markBlockStart(lineStart, count);
+        previousBlockEnd = offset + child.getEndOffset();
+      }
+    }
+    if (myLexemeCount > firstLexeme) {
+      myBlockStarts[firstLexeme] = true;
+    }
+  }
+
+  private void markBlockStart(int lineStart, int blockFirstLexeme) {
+    // the line may start with top-level whitespace lexemes added before the block ones
+    for (int i = blockFirstLexeme; i >= 0 && i < myLexemeCount; i--) {
+      if (myStartOffsets[i] == lineStart) {
+        myBlockStarts[i] = true;
+        return;
+      }
+      if (myStartOffsets[i] < lineStart) return;
+    }
+  }
+
+  private void addLexeme(@NotNull IElementType type, int start, int end) {
+    if (myLexemeCount == myLexemes.length) {
+      final int newLength = myLexemeCount * 2;
+      myLexemes = Arrays.copyOf(myLexemes, newLength);
+      myStartOffsets = ArrayUtil.realloc(myStartOffsets, newLength);
+      myEndOffsets = ArrayUtil.realloc(myEndOffsets, newLength);
+      myBlockStarts = Arrays.copyOf(myBlockStarts, newLength);
+    }
+    myLexemes[myLexemeCount] = type;
+    myStartOffsets[myLexemeCount] = start;
+    myEndOffsets[myLexemeCount] = end;
+    myBlockStarts[myLexemeCount] = false;
+    myLexemeCount++;
+  }
+
   private class LexerBuildingVisitor extends RecursiveVisitor {
+    private final int myOffset;
+
+    private LexerBuildingVisitor(int offset) {
+      myOffset = offset;
+    }
 
     @Override
     public void visitNode(@NotNull ASTNode node) {
@@ -93,9 +227,7 @@ public class MarkdownToplevelLexer extends LexerBase {
       }
       final List<ASTNode> children = node.getChildren();
       if (children.isEmpty()) {
-        myLexemes.add(MarkdownElementType.platformType(node.getType()));
-        myStartOffsets.add(node.getStartOffset());
-        myEndOffsets.add(node.getEndOffset());
+        addLexeme(MarkdownElementType.platformType(node.getType()), myOffset + node.getStartOffset(), myOffset + node.getEndOffset());
       }
       else {
         super.visitNode(node);
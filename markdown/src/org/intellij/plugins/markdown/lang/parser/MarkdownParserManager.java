@@ -1,39 +1,88 @@
 package org.intellij.plugins.markdown.lang.parser;
 
+import com.intellij.openapi.util.text.StringUtil;
+import com.intellij.reference.SoftReference;
 import org.intellij.markdown.MarkdownElementTypes;
 import org.intellij.markdown.ast.ASTNode;
 import org.intellij.markdown.flavours.gfm.GFMFlavourDescriptor;
 import org.intellij.markdown.parser.MarkdownParser;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
+import java.util.Iterator;
+import java.util.LinkedList;
+
+/**
+ * Parse results are shared between threads: the lexer, the PSI parser and the preview parse the same text from the EDT,
+ * the commit thread and a pooled thread. Editors pass the immutable text of the document, which stays the same object until the
+ * document is modified, so most lookups are an identity check.
+ */
 public class MarkdownParserManager {
   public static final GFMFlavourDescriptor FLAVOUR = new GFMFlavourDescriptor();
 
-  private static final ThreadLocal<ParsingInfo> ourLastParsingResult = new ThreadLocal<>();
+  private static final int CACHE_SIZE = 4;
+
+  // most recently used first
+  private static final LinkedList<SoftReference<ParsingInfo>> ourLastParsingResults = new LinkedList<>();
 
+  /**
+   * @return the tree of blocks, inline elements are left unparsed
+   */
   public static ASTNode parseContent(@NotNull CharSequence buffer) {
-    final ParsingInfo info = ourLastParsingResult.get();
-    if (info != null && info.myBufferHash == buffer.hashCode() && info.myBuffer.equals(buffer)) {
-      return info.myParseResult;
+    return parseContent(buffer, false);
+  }
+
+  public static ASTNode parseContent(@NotNull CharSequence buffer, boolean parseInlines) {
+    final ASTNode cached = findParseResult(buffer, parseInlines);
+    if (cached != null) {
+      return cached;
     }
 
     final ASTNode parseResult = new MarkdownParser(FLAVOUR)
-      .parse(MarkdownElementTypes.MARKDOWN_FILE, buffer.toString(), false);
-    ourLastParsingResult.set(new ParsingInfo(buffer, parseResult));
+      .parse(MarkdownElementTypes.MARKDOWN_FILE, buffer.toString(), parseInlines);
+    synchronized (ourLastParsingResults) {
+      ourLastParsingResults.addFirst(new SoftReference<>(new ParsingInfo(buffer, parseInlines, parseResult)));
+      if (ourLastParsingResults.size() > CACHE_SIZE) {
+        ourLastParsingResults.removeLast();
+      }
+    }
     return parseResult;
   }
 
+  @Nullable
+  private static ASTNode findParseResult(@NotNull CharSequence buffer, boolean parseInlines) {
+    synchronized (ourLastParsingResults) {
+      for (Iterator<SoftReference<ParsingInfo>> iterator = ourLastParsingResults.iterator(); iterator.hasNext(); ) {
+        final SoftReference<ParsingInfo> reference = iterator.next();
+        final ParsingInfo info = reference.get();
+        if (info == null) {
+          iterator.remove();
+        }
+        else if (info.myParseInlines == parseInlines && info.isParseOf(buffer)) {
+          iterator.remove();
+          ourLastParsingResults.addFirst(reference);
+          return info.myParseResult;
+        }
+      }
+    }
+    return null;
+  }
+
   private static class ParsingInfo {
     @NotNull
     final CharSequence myBuffer;
-    final int myBufferHash;
+    final boolean myParseInlines;
     @NotNull
     final ASTNode myParseResult;
 
-    public ParsingInfo(@NotNull CharSequence buffer, @NotNull ASTNode parseResult) {
+    public ParsingInfo(@NotNull CharSequence buffer, boolean parseInlines, @NotNull ASTNode parseResult) {
       myBuffer = buffer;
-      myBufferHash = myBuffer.hashCode();
+      myParseInlines = parseInlines;
       myParseResult = parseResult;
     }
+
+    private boolean isParseOf(@NotNull CharSequence buffer) {
+      return myBuffer == buffer || myBuffer.length() == buffer.length() && StringUtil.equals(myBuffer, buffer);
+    }
   }
 }
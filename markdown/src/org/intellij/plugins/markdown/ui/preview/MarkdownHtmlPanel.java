@@ -12,17 +12,34 @@ import org.w3c.dom.Node;
 import javax.swing.*;
 import java.util.Arrays;
 import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 
 public abstract class MarkdownHtmlPanel implements Disposable {
-  protected static final List<String> SCRIPTS = Arrays.asList("processLinks.js", "scrollToElement.js");
+  protected static final List<String> SCRIPTS = Arrays.asList("processLinks.js", "scrollToElement.js", "replaceBlocks.js");
 
   protected static final List<String> STYLES = Arrays.asList("default.css", "darcula.css", PreviewStaticServer.INLINE_CSS_FILENAME);
 
+  // separates top-level blocks in the page body, so that they can be replaced separately
+  protected static final String BLOCK_MARKER = "<!--md-block-->";
+
+  private static final Pattern SRC_RANGE_PATTERN =
+    Pattern.compile(Pattern.quote(HtmlGenerator.Companion.getSRC_ATTRIBUTE_NAME()) + "=\"(\\d+)\\.\\.(\\d+)\"");
+
   @NotNull
   public abstract JComponent getComponent();
 
   public abstract void setHtml(@NotNull String html);
 
+  /**
+   * Shows the page made of the given top-level blocks of a markdown text of <code>sourceLength</code> characters.
+   * Panels able to patch the shown page replace only the blocks that differ from the shown ones, the others render the whole page.
+   */
+  public void setHtmlBlocks(@NotNull List<String> blocks, int sourceLength) {
+    setHtml(joinBlocks(blocks, sourceLength));
+    render();
+  }
+
   public abstract void setCSS(@Nullable String inlineCss, @NotNull String... fileUris);
 
   public abstract void render();
@@ -45,6 +62,39 @@ public abstract class MarkdownHtmlPanel implements Disposable {
     return new Range<>(Integer.parseInt(startEnd.get(0)), Integer.parseInt(startEnd.get(1)));
   }
 
+  @NotNull
+  protected static String joinBlocks(@NotNull List<String> blocks, int sourceLength) {
+    final StringBuilder result = new StringBuilder("<html><head></head><body ")
+      .append(HtmlGenerator.Companion.getSRC_ATTRIBUTE_NAME()).append("=\"0..").append(sourceLength).append("\">");
+    for (String block : blocks) {
+      result.append(BLOCK_MARKER).append(block);
+    }
+    return result.append("</body></html>").toString();
+  }
+
+  /**
+   * Moves source ranges of the html elements by <code>delta</code>, for a block which moved in the markdown text
+   */
+  @NotNull
+  protected static String shiftSrcRanges(@NotNull String html, int delta) {
+    if (delta == 0) {
+      return html;
+    }
+    final Matcher matcher = SRC_RANGE_PATTERN.matcher(html);
+    if (!matcher.find()) {
+      return html;
+    }
+    final StringBuffer result = new StringBuffer(html.length() + 16);
+    do {
+      matcher.appendReplacement(result, "");
+      result.append(HtmlGenerator.Companion.getSRC_ATTRIBUTE_NAME()).append("=\"")
+        .append(Integer.parseInt(matcher.group(1)) + delta).append("..").append(Integer.parseInt(matcher.group(2)) + delta).append('"');
+    }
+    while (matcher.find());
+    matcher.appendTail(result);
+    return result.toString();
+  }
+
   @NotNull
   protected static String getCssLines(@Nullable String inlineCss, @NotNull String... fileUris) {
     StringBuilder result = new StringBuilder();
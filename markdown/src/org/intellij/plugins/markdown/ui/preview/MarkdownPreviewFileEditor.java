@@ -20,11 +20,13 @@ import com.intellij.openapi.vfs.VirtualFile;
 import com.intellij.util.Alarm;
 import com.intellij.util.messages.MessageBusConnection;
 import org.intellij.markdown.IElementType;
+import org.intellij.markdown.MarkdownElementTypes;
 import org.intellij.markdown.ast.ASTNode;
+import org.intellij.markdown.ast.ASTNodeKt;
+import org.intellij.markdown.ast.visitors.RecursiveVisitor;
 import org.intellij.markdown.html.GeneratingProvider;
 import org.intellij.markdown.html.HtmlGenerator;
 import org.intellij.markdown.parser.LinkMap;
-import org.intellij.markdown.parser.MarkdownParser;
 import org.intellij.plugins.markdown.lang.parser.MarkdownParserManager;
 import org.intellij.plugins.markdown.settings.MarkdownApplicationSettings;
 import org.intellij.plugins.markdown.settings.MarkdownCssSettings;
@@ -41,6 +43,10 @@ import java.awt.*;
 import java.beans.PropertyChangeListener;
 import java.io.File;
 import java.net.URI;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 public class MarkdownPreviewFileEditor extends UserDataHolderBase implements FileEditor {
@@ -96,7 +102,15 @@ public class MarkdownPreviewFileEditor extends UserDataHolderBase implements Fil
 
   private volatile int myLastScrollOffset;
   @NotNull
-  private String myLastRenderedHtml = "";
+  private List<String> myLastRenderedBlocks = Collections.emptyList();
+  private int myLastRenderedSourceLength;
+
+  private final Object BLOCKS_LOCK = new Object();
+  // source of a top-level block -> its html
+  @NotNull
+  private Map<String, RenderedBlock> myRenderedBlocks = new HashMap<>();
+  @NotNull
+  private String myRenderedLinkDefinitions = "";
 
   public MarkdownPreviewFileEditor(@NotNull VirtualFile file) {
     myFile = file;
@@ -228,7 +242,8 @@ public class MarkdownPreviewFileEditor extends UserDataHolderBase implements Fil
       return;
     }
 
-    final String html = generateMarkdownHtml(myFile, myDocument.getText());
+    final CharSequence text = myDocument.getImmutableCharSequence();
+    final List<String> blocks = generateMarkdownHtmlBlocks(text);
 
     // EA-75860: The lines to the top may be processed slowly; Since we're in pooled thread, we can be disposed already.
     if (!myFile.isValid() || Disposer.isDisposed(this)) {
@@ -240,17 +255,18 @@ public class MarkdownPreviewFileEditor extends UserDataHolderBase implements Fil
         mySwingAlarm.cancelRequest(myLastHtmlOrRefreshRequest);
       }
       myLastHtmlOrRefreshRequest = () -> {
-        final String currentHtml = "<html><head></head>" + SANITIZER_VALUE.getValue().sanitize(html) + "</html>";
-        if (!currentHtml.equals(myLastRenderedHtml)) {
-          myLastRenderedHtml = currentHtml;
-          myPanel.setHtml(myLastRenderedHtml);
+        if (!blocks.equals(myLastRenderedBlocks) || text.length() != myLastRenderedSourceLength) {
+          myLastRenderedBlocks = blocks;
+          myLastRenderedSourceLength = text.length();
+          myPanel.setHtmlBlocks(blocks, text.length());
 
           if (preserveScrollOffset) {
             myPanel.scrollToMarkdownSrcOffset(myLastScrollOffset);
           }
         }
-
-        myPanel.render();
+        else {
+          myPanel.render();
+        }
         synchronized (REQUESTS_LOCK) {
           myLastHtmlOrRefreshRequest = null;
         }
@@ -294,16 +310,81 @@ public class MarkdownPreviewFileEditor extends UserDataHolderBase implements Fil
     Disposer.dispose(myPanel);
   }
 
+  /**
+   * @return sanitized html of the top-level blocks. Blocks whose source did not change since the last call are not generated and
+   * sanitized again, unless link definitions changed
+   */
   @NotNull
-  private static String generateMarkdownHtml(@NotNull VirtualFile file, @NotNull String text) {
-    final VirtualFile parent = file.getParent();
+  private List<String> generateMarkdownHtmlBlocks(@NotNull CharSequence text) {
+    final VirtualFile parent = myFile.getParent();
     final URI baseUri = parent != null ? new File(parent.getPath()).toURI() : null;
 
-    final ASTNode parsedTree = new MarkdownParser(MarkdownParserManager.FLAVOUR).buildMarkdownTreeFromString(text);
-    final Map<IElementType, GeneratingProvider> htmlGeneratingProviders =
-      MarkdownParserManager.FLAVOUR.createHtmlGeneratingProviders(LinkMap.Builder.buildLinkMap(parsedTree, text), baseUri);
+    final ASTNode parsedTree = MarkdownParserManager.parseContent(text, true);
+    final String textString = text.toString();
+    final String linkDefinitions = collectLinkDefinitions(parsedTree, textString);
+
+    synchronized (BLOCKS_LOCK) {
+      if (!linkDefinitions.equals(myRenderedLinkDefinitions)) {
+        myRenderedLinkDefinitions = linkDefinitions;
+        myRenderedBlocks = new HashMap<>();
+      }
+
+      Map<IElementType, GeneratingProvider> htmlGeneratingProviders = null;
+      final Map<String, RenderedBlock> renderedBlocks = new HashMap<>();
+      final List<String> result = new ArrayList<>(parsedTree.getChildren().size());
+      for (ASTNode block : parsedTree.getChildren()) {
+        final String source = textString.substring(block.getStartOffset(), block.getEndOffset());
+        RenderedBlock renderedBlock = renderedBlocks.get(source);
+        if (renderedBlock == null) {
+          renderedBlock = myRenderedBlocks.get(source);
+        }
+        if (renderedBlock == null) {
+          if (htmlGeneratingProviders == null) {
+            htmlGeneratingProviders = MarkdownParserManager.FLAVOUR
+              .createHtmlGeneratingProviders(LinkMap.Builder.buildLinkMap(parsedTree, text), baseUri);
+          }
+          final String html = new HtmlGenerator(textString, block, htmlGeneratingProviders, true).generateHtml();
+          renderedBlock = new RenderedBlock(SANITIZER_VALUE.getValue().sanitize(html), block.getStartOffset());
+        }
+        renderedBlocks.put(source, renderedBlock);
+        result.add(renderedBlock.getHtml(block.getStartOffset()));
+      }
+      myRenderedBlocks = renderedBlocks;
+      return result;
+    }
+  }
+
+  @NotNull
+  private static String collectLinkDefinitions(@NotNull ASTNode parsedTree, @NotNull String text) {
+    final StringBuilder result = new StringBuilder();
+    ASTNodeKt.accept(parsedTree, new RecursiveVisitor() {
+      @Override
+      public void visitNode(@NotNull ASTNode node) {
+        if (node.getType() == MarkdownElementTypes.LINK_DEFINITION) {
+          result.append(text, node.getStartOffset(), node.getEndOffset()).append('\n');
+        }
+        else {
+          super.visitNode(node);
+        }
+      }
+    });
+    return result.toString();
+  }
+
+  private static class RenderedBlock {
+    @NotNull
+    private final String myHtml;
+    private final int myStartOffset;
 
-    return new HtmlGenerator(text, parsedTree, htmlGeneratingProviders, true).generateHtml();
+    private RenderedBlock(@NotNull String html, int startOffset) {
+      myHtml = html;
+      myStartOffset = startOffset;
+    }
+
+    @NotNull
+    private String getHtml(int startOffset) {
+      return MarkdownHtmlPanel.shiftSrcRanges(myHtml, startOffset - myStartOffset);
+    }
   }
 
   @Contract("_, null, null -> fail")
@@ -351,7 +432,7 @@ public class MarkdownPreviewFileEditor extends UserDataHolderBase implements Fil
 
       mySwingAlarm.addRequest(() -> {
         myPanel = detachOldPanelAndCreateAndAttachNewOne(myHtmlPanelWrapper, myPanel, newPanelProvider);
-        myPanel.setHtml(myLastRenderedHtml);
+        myPanel.setHtml(MarkdownHtmlPanel.joinBlocks(myLastRenderedBlocks, myLastRenderedSourceLength));
         updatePanelCssSettings(myPanel, settings.getMarkdownCssSettings());
       }, 0, ModalityState.stateForComponent(getComponent()));
     }
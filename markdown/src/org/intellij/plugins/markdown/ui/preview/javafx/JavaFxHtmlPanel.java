@@ -59,6 +59,28 @@ public class JavaFxHtmlPanel extends MarkdownHtmlPanel {
   private String myCSP = "";
   @NotNull
   private String myLastRawHtml = "";
+  // blocks of myLastRawHtml, null if it was set as a whole
+  @Nullable
+  private List<String> myLastBlocks;
+  private int myLastSourceLength;
+  @NotNull
+  private final BlockPage myPage = new BlockPage() {
+    @Override
+    protected void loadContent(@NotNull String html) {
+      getWebViewGuaranteed().getEngine().loadContent(html);
+    }
+
+    @Override
+    protected boolean replaceBlocks(int start, int count, int shownCount, @NotNull String html, int sourceLength, int delta) {
+      final Object tools = getWebViewGuaranteed().getEngine().executeScript("window.__IntelliJTools");
+      if (!(tools instanceof JSObject)) {
+        return false;
+      }
+      final Object result = ((JSObject)tools).call("replaceBlocks", start, count, shownCount, ImageRefreshFix.setStamps(html),
+                                                    HtmlGenerator.Companion.getSRC_ATTRIBUTE_NAME(), "0.." + sourceLength, delta);
+      return Boolean.TRUE.equals(result);
+    }
+  };
   @NotNull
   private final ScrollPreservingListener myScrollPreservingListener = new ScrollPreservingListener();
   @NotNull
@@ -153,9 +175,21 @@ public class JavaFxHtmlPanel extends MarkdownHtmlPanel {
   @Override
   public void setHtml(@NotNull String html) {
     myLastRawHtml = html;
+    myLastBlocks = null;
     final String htmlToRender = prepareHtml(html);
 
-    runInPlatformWhenAvailable(() -> getWebViewGuaranteed().getEngine().loadContent(htmlToRender));
+    runInPlatformWhenAvailable(() -> myPage.setHtml(htmlToRender));
+  }
+
+  @Override
+  public void setHtmlBlocks(@NotNull List<String> blocks, int sourceLength) {
+    final String html = joinBlocks(blocks, sourceLength);
+    myLastRawHtml = html;
+    myLastBlocks = blocks;
+    myLastSourceLength = sourceLength;
+    final String htmlToRender = prepareHtml(html);
+
+    runInPlatformWhenAvailable(() -> myPage.setBlocks(blocks, sourceLength, htmlToRender));
   }
 
   @NotNull
@@ -181,8 +215,12 @@ public class JavaFxHtmlPanel extends MarkdownHtmlPanel {
 
   @Override
   public void render() {
+    final String htmlToRender = prepareHtml(myLastRawHtml);
+    final List<String> blocks = myLastBlocks;
+    final int sourceLength = myLastSourceLength;
+
     runInPlatformWhenAvailable(() -> {
-      getWebViewGuaranteed().getEngine().reload();
+      myPage.reload(htmlToRender, blocks, sourceLength);
       ApplicationManager.getApplication().invokeLater(myPanelWrapper::repaint);
     });
   }
@@ -223,6 +261,87 @@ public class JavaFxHtmlPanel extends MarkdownHtmlPanel {
       return MY_SCRIPTING_LINES.getValue();
   }
 
+  /**
+   * Page loaded in the web view, made of top-level blocks which can be replaced in place. Only accessed from the FX thread.
+   */
+  abstract static class BlockPage {
+    // blocks of the loaded page, null if it was set as a whole
+    @Nullable
+    private List<String> myShownBlocks;
+    private int myShownSourceLength;
+    private boolean myLoaded;
+
+    void setHtml(@NotNull String html) {
+      myShownBlocks = null;
+      load(html);
+    }
+
+    /**
+     * @param html the whole page made of <code>blocks</code>, loaded if they can't be replaced in place
+     */
+    void setBlocks(@NotNull List<String> blocks, int sourceLength, @NotNull String html) {
+      if (!myLoaded || myShownBlocks == null || !replaceChangedBlocks(myShownBlocks, blocks, sourceLength)) {
+        load(html);
+      }
+      myShownBlocks = blocks;
+      myShownSourceLength = sourceLength;
+    }
+
+    /**
+     * Loads the last set page again. Reloading the engine isn't enough: it shows the content loaded last, without replaced blocks.
+     *
+     * @param blocks blocks of <code>html</code>, null if it was set as a whole
+     */
+    void reload(@NotNull String html, @Nullable List<String> blocks, int sourceLength) {
+      load(html);
+      myShownBlocks = blocks;
+      myShownSourceLength = sourceLength;
+    }
+
+    void loaded() {
+      myLoaded = true;
+    }
+
+    private void load(@NotNull String html) {
+      myLoaded = false;
+      loadContent(html);
+    }
+
+    /**
+     * Replaces the blocks between the common prefix and suffix of the shown and the new ones. Blocks after an edit differ only in
+     * their source ranges, which are moved in place.
+     */
+    private boolean replaceChangedBlocks(@NotNull List<String> shownBlocks, @NotNull List<String> blocks, int sourceLength) {
+      final int delta = sourceLength - myShownSourceLength;
+      final int commonLength = Math.min(shownBlocks.size(), blocks.size());
+      int prefix = 0;
+      while (prefix < commonLength && shownBlocks.get(prefix).equals(blocks.get(prefix))) {
+        prefix++;
+      }
+      int suffix = 0;
+      while (suffix < commonLength - prefix &&
+             shiftSrcRanges(shownBlocks.get(shownBlocks.size() - suffix - 1), delta).equals(blocks.get(blocks.size() - suffix - 1))) {
+        suffix++;
+      }
+
+      final StringBuilder html = new StringBuilder();
+      for (String block : blocks.subList(prefix, blocks.size() - suffix)) {
+        html.append(BLOCK_MARKER).append(block);
+      }
+      return replaceBlocks(prefix, shownBlocks.size() - prefix - suffix, shownBlocks.size(), html.toString(), sourceLength, delta);
+    }
+
+    protected abstract void loadContent(@NotNull String html);
+
+    /**
+     * Replaces <code>count</code> blocks from <code>start</code> of the <code>shownCount</code> loaded ones with the blocks of
+     * <code>html</code> and moves the source ranges of the blocks after them by <code>delta</code>
+     *
+     * @return false if the page can't be patched and should be loaded as a whole
+     */
+    protected abstract boolean replaceBlocks(int start, int count, int shownCount, @NotNull String html, int sourceLength, int delta);
+  }
+
   @SuppressWarnings("unused")
   public static class JavaPanelBridge {
     static final JavaPanelBridge INSTANCE = new JavaPanelBridge();
@@ -258,6 +377,7 @@ public class JavaFxHtmlPanel extends MarkdownHtmlPanel {
         }
       }
       else if (newValue == State.SUCCEEDED) {
+        myPage.loaded();
         getWebViewGuaranteed().getEngine()
           .executeScript("document.documentElement.scrollTop = ({} || document.body).scrollTop = " + myScrollY);
       }
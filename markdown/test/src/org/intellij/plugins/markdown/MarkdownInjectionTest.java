@@ -1,11 +1,18 @@
 package org.intellij.plugins.markdown;
 
+import com.intellij.codeInsight.daemon.impl.DaemonProgressIndicator;
+import com.intellij.lang.injection.InjectedLanguageManager;
 import com.intellij.lang.javascript.JavascriptLanguage;
+import com.intellij.openapi.progress.ProgressManager;
+import com.intellij.openapi.util.Ref;
 import com.intellij.psi.PsiFile;
+import com.intellij.psi.util.PsiTreeUtil;
 import com.intellij.testFramework.fixtures.LightPlatformCodeInsightFixtureTestCase;
 import org.intellij.plugins.markdown.injection.LanguageGuesser;
+import org.intellij.plugins.markdown.injection.LazyCodeFenceInjection;
 import org.intellij.plugins.markdown.lang.MarkdownFileType;
 import org.intellij.plugins.markdown.lang.MarkdownLanguage;
+import org.intellij.plugins.markdown.lang.psi.impl.MarkdownCodeFenceImpl;
 
 public class MarkdownInjectionTest extends LightPlatformCodeInsightFixtureTestCase {
   public void testFenceWithLang() {
@@ -22,6 +29,51 @@ public class MarkdownInjectionTest extends LightPlatformCodeInsightFixtureTestCa
     assertNotNull(LanguageGuesser.INSTANCE.guessLanguage("js"));
   }
 
+  public void testFencesOfLongDocumentInjectedOutsideOfHighlighting() {
+    // e.g. for batch inspections or find usages
+    final PsiFile file = myFixture.configureByText(MarkdownFileType.INSTANCE, getFences(40, 39));
+    assertNotNull(InjectedLanguageManager.getInstance(getProject()).findInjectedElementAt(file, myFixture.getCaretOffset()));
+  }
+
+  public void testFencesOfLongDocumentDeferredInHighlighting() {
+    final MarkdownCodeFenceImpl fence = configureFence(getFences(40, 39));
+    final LazyCodeFenceInjection lazyInjection = LazyCodeFenceInjection.getInstance(getProject());
+    // the headless editor has no visible area
+    assertFalse(isInjectionAllowedInHighlighting(lazyInjection, fence));
+    assertTrue(lazyInjection.isInjectionAllowed(fence));
+  }
+
+  public void testFencesOfShortDocumentInjectedInHighlighting() {
+    final MarkdownCodeFenceImpl fence = configureFence(getFences(10, 9));
+    assertTrue(isInjectionAllowedInHighlighting(LazyCodeFenceInjection.getInstance(getProject()), fence));
+  }
+
+  private MarkdownCodeFenceImpl configureFence(String text) {
+    final PsiFile file = myFixture.configureByText(MarkdownFileType.INSTANCE, text);
+    final MarkdownCodeFenceImpl fence =
+      PsiTreeUtil.getParentOfType(file.findElementAt(myFixture.getCaretOffset()), MarkdownCodeFenceImpl.class);
+    assertNotNull(fence);
+    return fence;
+  }
+
+  private static boolean isInjectionAllowedInHighlighting(LazyCodeFenceInjection lazyInjection, MarkdownCodeFenceImpl fence) {
+    final Ref<Boolean> result = Ref.create();
+    ProgressManager.getInstance().runProcess(() -> result.set(lazyInjection.isInjectionAllowed(fence)), new DaemonProgressIndicator());
+    return result.get();
+  }
+
+  /**
+   * @return document with <code>count</code> java fences, the caret is in the fence number <code>caretFence</code>
+   */
+  private static String getFences(int count, int caretFence) {
+    final StringBuilder result = new StringBuilder();
+    for (int i = 0; i < count; i++) {
+      result.append("Paragraph ").append(i).append("\n\n```java\n");
+      result.append(i == caretFence ? "class A<caret> {}" : "class A {}").append("\n```\n\n");
+    }
+    return result.toString();
+  }
+
   private void doTest(String text, boolean shouldHaveInjection) {
     final PsiFile file = myFixture.configureByText(MarkdownFileType.INSTANCE, text);
     assertEquals(shouldHaveInjection, !file.findElementAt(myFixture.getCaretOffset()).getLanguage().isKindOf(MarkdownLanguage.INSTANCE));
@@ -0,0 +1,91 @@
+package org.intellij.plugins.markdown.lexer;
+
+import com.intellij.lexer.Lexer;
+import com.intellij.openapi.util.text.StringUtil;
+import com.intellij.testFramework.PlatformTestUtil;
+import com.intellij.testFramework.UsefulTestCase;
+import org.intellij.plugins.markdown.highlighting.MarkdownColorSettingsPage;
+import org.intellij.plugins.markdown.lang.lexer.MarkdownToplevelLexer;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class MarkdownToplevelLexerTest extends UsefulTestCase {
+  private static final int SAMPLE_COPIES = 200;
+
+  public void testIncrementalLexemesMatchFullParse() {
+    final String text = getLongDocument();
+    assertEquals(lex(new MarkdownToplevelLexer(), text, 0), lex(new MarkdownToplevelLexer(true), text, 0));
+  }
+
+  public void testRestartFromBlockStart() {
+    final String text = getLongDocument();
+    final List<String> lexemes = lex(new MarkdownToplevelLexer(true), text, 0);
+    final List<Integer> restartOffsets = getBlockStarts(text);
+    assertTrue(restartOffsets.size() > SAMPLE_COPIES);
+
+    for (int i = 0; i < restartOffsets.size(); i += restartOffsets.size() / 20) {
+      final int offset = restartOffsets.get(i);
+      final List<String> restarted = lex(new MarkdownToplevelLexer(true), text, offset);
+      assertEquals(lexemes.subList(lexemes.size() - restarted.size(), lexemes.size()), restarted);
+    }
+  }
+
+  public void testEmptyRange() {
+    final String text = getLongDocument();
+    assertEmpty(lex(new MarkdownToplevelLexer(true), "", 0));
+    assertEmpty(lex(new MarkdownToplevelLexer(true), text, text.length()));
+    assertEmpty(lex(new MarkdownToplevelLexer(), text, text.length()));
+  }
+
+  public void testTypingPerformance() {
+    final String text = getLongDocument();
+    final List<Integer> restartOffsets = getBlockStarts(text);
+    final Lexer lexer = new MarkdownToplevelLexer(true);
+
+    // emulates the highlighter: relex from the block start before the edit until the next block start
+    PlatformTestUtil.startPerformanceTest("Markdown lexing after typing", 500, () -> {
+      for (int i = 0; i < restartOffsets.size(); i += 10) {
+        final int offset = restartOffsets.get(i);
+        lexer.start(text, offset, text.length(), MarkdownToplevelLexer.BLOCK_START_STATE);
+        lexer.advance();
+        while (lexer.getTokenType() != null && lexer.getState() != MarkdownToplevelLexer.BLOCK_START_STATE) {
+          lexer.advance();
+        }
+      }
+    }).assertTiming();
+  }
+
+  private static List<Integer> getBlockStarts(String text) {
+    final List<Integer> result = new ArrayList<>();
+    final Lexer lexer = new MarkdownToplevelLexer(true);
+    lexer.start(text);
+    while (lexer.getTokenType() != null) {
+      if (lexer.getState() == MarkdownToplevelLexer.BLOCK_START_STATE) {
+        result.add(lexer.getTokenStart());
+      }
+      lexer.advance();
+    }
+    return result;
+  }
+
+  private static List<String> lex(Lexer lexer, String text, int startOffset) {
+    final List<String> result = new ArrayList<>();
+    lexer.start(text, startOffset, text.length(), MarkdownToplevelLexer.BLOCK_START_STATE);
+    while (lexer.getTokenType() != null) {
+      result.add(lexer.getTokenType() + " " + lexer.getTokenStart() + " " + lexer.getTokenEnd());
+      lexer.advance();
+    }
+    return result;
+  }
+
+  private static String getLongDocument() {
+    final MarkdownColorSettingsPage colorSettingsPage = new MarkdownColorSettingsPage();
+    String demoText = colorSettingsPage.getDemoText();
+    for (String tag : colorSettingsPage.getAdditionalHighlightingTagToDescriptorMap().keySet()) {
+      demoText = demoText.replaceAll("<" + tag + ">", "");
+      demoText = demoText.replaceAll("</" + tag + ">", "");
+    }
+    return StringUtil.repeat(demoText + "\n\n", SAMPLE_COPIES);
+  }
+}
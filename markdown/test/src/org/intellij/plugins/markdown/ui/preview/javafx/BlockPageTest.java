@@ -0,0 +1,77 @@
+package org.intellij.plugins.markdown.ui.preview.javafx;
+
+import com.intellij.openapi.util.text.StringUtil;
+import junit.framework.TestCase;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+public class BlockPageTest extends TestCase {
+  private static final String MARKER = "<!--md-block-->";
+
+  public void testPatchedBlocksAfterRender() {
+    final FakePage page = new FakePage();
+    page.setBlocks(Arrays.asList("<p>a</p>", "<p>b</p>"), 10, join("<p>a</p>", "<p>b</p>"));
+    page.loaded();
+    page.setBlocks(Arrays.asList("<p>a</p>", "<p>c</p>"), 10, join("<p>a</p>", "<p>c</p>"));
+    assertEquals(1, page.loads);
+    assertEquals(Arrays.asList("<p>a</p>", "<p>c</p>"), page.dom);
+
+    page.reload(join("<p>a</p>", "<p>c</p>"), Arrays.asList("<p>a</p>", "<p>c</p>"), 10);
+    page.loaded();
+    assertEquals(Arrays.asList("<p>a</p>", "<p>c</p>"), page.dom);
+
+    page.setBlocks(Arrays.asList("<p>d</p>", "<p>c</p>"), 10, join("<p>d</p>", "<p>c</p>"));
+    assertEquals(2, page.loads);
+    assertEquals(Arrays.asList("<p>d</p>", "<p>c</p>"), page.dom);
+  }
+
+  public void testRenderAfterWholeHtml() {
+    final FakePage page = new FakePage();
+    page.setBlocks(Arrays.asList("<p>a</p>", "<p>b</p>"), 10, join("<p>a</p>", "<p>b</p>"));
+    page.loaded();
+    page.setHtml(join("<p>e</p>"));
+    page.reload(join("<p>e</p>"), null, 0);
+    page.loaded();
+
+    page.setBlocks(Arrays.asList("<p>a</p>", "<p>b</p>"), 10, join("<p>a</p>", "<p>b</p>"));
+    assertEquals(4, page.loads);
+    assertEquals(Arrays.asList("<p>a</p>", "<p>b</p>"), page.dom);
+  }
+
+  @NotNull
+  private static String join(@NotNull String... blocks) {
+    return "<html><body>" + MARKER + StringUtil.join(blocks, MARKER) + "</body></html>";
+  }
+
+  @NotNull
+  private static List<String> split(@NotNull String html) {
+    final List<String> blocks = new ArrayList<>(StringUtil.split(StringUtil.trimEnd(html, "</body></html>"), MARKER));
+    if (!blocks.isEmpty() && !html.startsWith(MARKER)) {
+      blocks.remove(0);
+    }
+    return blocks;
+  }
+
+  private static class FakePage extends JavaFxHtmlPanel.BlockPage {
+    private List<String> dom = new ArrayList<>();
+    private int loads;
+
+    @Override
+    protected void loadContent(@NotNull String html) {
+      dom = split(html);
+      loads++;
+    }
+
+    @Override
+    protected boolean replaceBlocks(int start, int count, int shownCount, @NotNull String html, int sourceLength, int delta) {
+      assertEquals(dom.size(), shownCount);
+      final List<String> replaced = dom.subList(start, start + count);
+      replaced.clear();
+      replaced.addAll(split(html));
+      return true;
+    }
+  }
+}
@@ -17,8 +17,9 @@ package com.intellij.struts2.dom.struts.impl;
 
 import org.junit.Test;
 
-import static org.junit.Assert.assertFalse;
-import static org.junit.Assert.assertTrue;
+import java.util.regex.Pattern;
+
+import static org.junit.Assert.*;
 
 /**
  * Tests for {@link ActionUtil}.
@@ -67,4 +68,22 @@ public class ActionUtilTest {
     assertTrue(ActionUtil.matchesPath("myPath*", "myPathSomething!myAction"));
   }
 
+  @Test
+  public void stripMethodInvocation() {
+    assertEquals("myPath", ActionUtil.stripMethodInvocation("myPath"));
+    assertEquals("myPath", ActionUtil.stripMethodInvocation("myPath!myAction"));
+    assertEquals("", ActionUtil.stripMethodInvocation("!myAction"));
+  }
+
+  @Test
+  public void compileWildcardPattern() {
+    final Pattern pattern = ActionUtil.compileWildcardPattern("some*Action");
+    assertNotNull(pattern);
+    assertTrue(pattern.matcher("someXAction").matches());
+    assertFalse(pattern.matcher("some/Action").matches());
+
+    // invalid pattern
+    assertNull(ActionUtil.compileWildcardPattern("some*[Action"));
+  }
+
 }
\ No newline at end of file
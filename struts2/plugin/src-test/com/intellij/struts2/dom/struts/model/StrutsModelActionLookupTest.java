@@ -0,0 +1,100 @@
+/*
+ * Copyright 2013 The authors
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.intellij.struts2.dom.struts.model;
+
+import com.intellij.openapi.command.WriteCommandAction;
+import com.intellij.psi.PsiClass;
+import com.intellij.struts2.BasicLightHighlightingTestCase;
+import com.intellij.struts2.dom.struts.action.Action;
+import com.intellij.struts2.dom.struts.strutspackage.StrutsPackage;
+import com.intellij.util.containers.ContainerUtil;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.List;
+
+/**
+ * Tests for action lookups in {@link StrutsModel}.
+ */
+public class StrutsModelActionLookupTest extends BasicLightHighlightingTestCase {
+
+  @Override
+  @NotNull
+  protected String getTestDataLocation() {
+    return "strutsXml/model";
+  }
+
+  @Override
+  protected void performSetUp() throws Exception {
+    myFixture.copyFileToProject("MyAction.java");
+    myFixture.copyFileToProject("MyOtherAction.java");
+    createStrutsFileSet("struts-actions.xml");
+  }
+
+  public void testFindActionsByName() {
+    assertActions(getModel().findActionsByName("exact", null), "/:exact", "/admin:exact");
+    assertActions(getModel().findActionsByName("exact", "/admin"), "/admin:exact");
+    assertActions(getModel().findActionsByName("exact!method", "/"), "/:exact");
+
+    // exact and wildcard matches keep declaration order
+    assertActions(getModel().findActionsByName("listUsers", "/"), "/:list*", "/:listUsers");
+    assertActions(getModel().findActionsByName("listOrders", null), "/:list*");
+    assertActions(getModel().findActionsByName("list/Users", null));
+    assertActions(getModel().findActionsByName("editUser", "/"));
+    assertActions(getModel().findActionsByName("unknown", "/unknown"));
+  }
+
+  public void testGetActionsForNamespace() {
+    assertActions(getModel().getActionsForNamespace("/admin"), "/admin:exact", "/admin:edit*");
+    assertActions(getModel().getActionsForNamespace(null), "/:exact", "/:list*", "/:listUsers", "/admin:exact", "/admin:edit*");
+    assertActions(getModel().getActionsForNamespace("/unknown"));
+  }
+
+  public void testFindActionsByClass() {
+    final PsiClass myAction = myFixture.findClass("MyAction");
+    final PsiClass myOtherAction = myFixture.findClass("MyOtherAction");
+
+    assertActions(getModel().findActionsByClass(myAction), "/:exact", "/:list*");
+    // <default-class-ref>
+    assertActions(getModel().findActionsByClass(myOtherAction), "/:listUsers", "/admin:exact", "/admin:edit*");
+    assertTrue(getModel().isActionClass(myOtherAction));
+  }
+
+  public void testLookupsFollowModifications() {
+    final StrutsModel model = getModel();
+    assertActions(model.findActionsByName("exact", "/"), "/:exact");
+
+    final StrutsPackage strutsPackage = model.getStrutsPackages().get(0);
+    WriteCommandAction.runWriteCommandAction(getProject(), () -> {
+      strutsPackage.getActions().get(0).getName().setStringValue("renamed");
+    });
+
+    assertActions(model.findActionsByName("exact", "/"));
+    assertActions(model.findActionsByName("renamed", "/"), "/:renamed");
+    assertActions(model.findActionsByClass(myFixture.findClass("MyAction")), "/:renamed", "/:list*");
+  }
+
+  @NotNull
+  private StrutsModel getModel() {
+    final StrutsModel model = StrutsManager.getInstance(getProject()).getCombinedModel(myModule);
+    assertNotNull(model);
+    return model;
+  }
+
+  private static void assertActions(final List<Action> actions, final String... expected) {
+    assertOrderedEquals(ContainerUtil.map(actions, action -> action.getNamespace() + ":" + action.getName().getStringValue()),
+                        expected);
+  }
+}
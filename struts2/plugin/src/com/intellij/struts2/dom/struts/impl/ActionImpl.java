@@ -37,7 +37,7 @@ public abstract class ActionImpl implements Action {
 
   @Nullable
   private String getNameValue() {
-    return getName().getRawText();
+    return ActionUtil.getActionPath(this);
   }
 
   @Override
@@ -23,6 +23,7 @@ import com.intellij.openapi.util.text.StringUtil;
 import com.intellij.psi.*;
 import com.intellij.psi.search.GlobalSearchScope;
 import com.intellij.psi.util.PropertyUtil;
+import com.intellij.struts2.dom.struts.action.Action;
 import com.intellij.util.SmartList;
 import com.intellij.util.containers.ContainerUtil;
 import org.jetbrains.annotations.NonNls;
@@ -35,15 +36,26 @@ import java.util.regex.Pattern;
 import java.util.regex.PatternSyntaxException;
 
 /**
- * Helper methods for {@link ActionImpl}.
+ * Helper methods for {@link ActionImpl} and the action lookup in {@link com.intellij.struts2.dom.struts.model.StrutsModel}.
  *
  * @author Yann C&eacute;bron
  */
-final class ActionUtil {
+public final class ActionUtil {
 
   private ActionUtil() {
   }
 
+  /**
+   * Returns the Action's path as used for matching.
+   *
+   * @param action Action.
+   * @return Path, {@code null} if not set.
+   */
+  @Nullable
+  public static String getActionPath(@NotNull final Action action) {
+    return action.getName().getRawText();
+  }
+
   /**
    * Does the given path match the Action's path (including support for wildcards and bang notation).
    *
@@ -53,20 +65,42 @@ final class ActionUtil {
    */
   static boolean matchesPath(@NotNull @NonNls final String actionPath,
                              @NotNull @NonNls final String checkPath) {
-    // strip everything behind "!"
-    final int bangIdx = checkPath.indexOf('!');
-    final String strippedCheckPath = bangIdx == -1 ? checkPath : checkPath.substring(0, bangIdx);
+    final String strippedCheckPath = stripMethodInvocation(checkPath);
 
     // do we have any wildcard-markers in our path? no --> exact compare
     if (actionPath.indexOf('*') == -1) {
       return Comparing.equal(strippedCheckPath, actionPath);
     }
 
+    final Pattern pattern = compileWildcardPattern(actionPath);
+    return pattern != null && pattern.matcher(strippedCheckPath).matches();
+  }
+
+  /**
+   * Strips the method invocation using bang notation ("path!method").
+   *
+   * @param checkPath Path to check.
+   * @return Path without everything behind "!".
+   */
+  @NotNull
+  public static String stripMethodInvocation(@NotNull @NonNls final String checkPath) {
+    final int bangIdx = checkPath.indexOf('!');
+    return bangIdx == -1 ? checkPath : checkPath.substring(0, bangIdx);
+  }
+
+  /**
+   * Compiles the pattern matching (stripped) paths for an Action path containing wildcards.
+   *
+   * @param actionPath Path of Action.
+   * @return Pattern, {@code null} if the path is not a valid pattern.
+   */
+  @Nullable
+  public static Pattern compileWildcardPattern(@NotNull @NonNls final String actionPath) {
     try {
-      return Pattern.matches(StringUtil.replace(actionPath, "*", "[^/]*"), strippedCheckPath);
+      return Pattern.compile(StringUtil.replace(actionPath, "*", "[^/]*"));
     }
     catch (PatternSyntaxException e) {
-      return false;
+      return null;
     }
   }
 
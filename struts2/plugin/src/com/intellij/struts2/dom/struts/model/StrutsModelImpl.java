@@ -16,30 +16,35 @@
 package com.intellij.struts2.dom.struts.model;
 
 import com.intellij.openapi.util.Comparing;
-import com.intellij.openapi.util.Condition;
+import com.intellij.openapi.util.Pair;
 import com.intellij.psi.PsiClass;
+import com.intellij.psi.util.CachedValue;
+import com.intellij.psi.util.CachedValueProvider;
+import com.intellij.psi.util.CachedValuesManager;
+import com.intellij.psi.util.PsiModificationTracker;
 import com.intellij.psi.xml.XmlFile;
 import com.intellij.struts2.dom.struts.StrutsRoot;
 import com.intellij.struts2.dom.struts.action.Action;
+import com.intellij.struts2.dom.struts.impl.ActionUtil;
 import com.intellij.struts2.dom.struts.strutspackage.Interceptor;
 import com.intellij.struts2.dom.struts.strutspackage.InterceptorOrStackBase;
 import com.intellij.struts2.dom.struts.strutspackage.InterceptorStack;
 import com.intellij.struts2.dom.struts.strutspackage.StrutsPackage;
+import com.intellij.util.ArrayUtil;
 import com.intellij.util.Function;
 import com.intellij.util.NotNullFunction;
 import com.intellij.util.Processor;
 import com.intellij.util.SmartList;
 import com.intellij.util.containers.ContainerUtil;
+import com.intellij.util.containers.MultiMap;
 import com.intellij.util.xml.DomFileElement;
 import com.intellij.util.xml.model.impl.DomModelImpl;
 import org.jetbrains.annotations.NonNls;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
-import java.util.Collection;
-import java.util.HashSet;
-import java.util.List;
-import java.util.Set;
+import java.util.*;
+import java.util.regex.Pattern;
 
 /**
  * @author Yann C&eacute;bron
@@ -52,9 +57,22 @@ class StrutsModelImpl extends DomModelImpl<StrutsRoot> implements StrutsModel {
   private static final Function<StrutsRoot, Collection<? extends StrutsPackage>> STRUTS_PACKAGE_COLLECTOR =
     strutsRoot -> strutsRoot.getPackages();
 
+  private final CachedValue<ActionNameIndex> myActionNameIndex;
+  private final CachedValue<MultiMap<String, Pair<Action, PsiClass>>> myActionsByClass;
+
   StrutsModelImpl(@NotNull final DomFileElement<StrutsRoot> strutsRootDomFileElement,
                   @NotNull final Set<XmlFile> xmlFiles) {
     super(strutsRootDomFileElement, xmlFiles);
+
+    final CachedValuesManager cachedValuesManager = CachedValuesManager.getManager(strutsRootDomFileElement.getManager().getProject());
+    final Object[] configFiles = ArrayUtil.toObjectArray(xmlFiles);
+    myActionNameIndex = cachedValuesManager.createCachedValue(
+      () -> CachedValueProvider.Result.create(new ActionNameIndex(getStrutsPackages()), configFiles), false);
+    // action classes are resolved via DOM converters, so Java changes invalidate the mapping as well
+    myActionsByClass = cachedValuesManager.createCachedValue(
+      () -> CachedValueProvider.Result.create(buildActionsByClass(),
+                                              ArrayUtil.append(configFiles, PsiModificationTracker.OUT_OF_CODE_BLOCK_MODIFICATION_COUNT)),
+      false);
   }
 
   @NotNull
@@ -82,7 +100,7 @@ class StrutsModelImpl extends DomModelImpl<StrutsRoot> implements StrutsModel {
   @NotNull
   public List<Action> findActionsByName(@NotNull @NonNls final String name,
                                         @Nullable @NonNls final String namespace) {
-    return ContainerUtil.findAll(getActionsForNamespace(namespace), action -> action.matchesPath(name));
+    return myActionNameIndex.getValue().findActions(name, namespace);
   }
 
   @NotNull
@@ -92,16 +110,17 @@ class StrutsModelImpl extends DomModelImpl<StrutsRoot> implements StrutsModel {
 
   private List<Action> findActionsByClassInner(final PsiClass clazz,
                                                final boolean skipOnFirst) {
-    final List<Action> actionResultList = new SmartList<>();
+    final String qualifiedName = clazz.getQualifiedName();
+    if (qualifiedName == null) {
+      return Collections.emptyList();
+    }
 
-    for (final StrutsPackage strutsPackage : getStrutsPackages()) {
-      for (final Action action : strutsPackage.getActions()) {
-        final PsiClass actionClassValue = action.searchActionClass();
-        if (Comparing.equal(clazz, actionClassValue)) {
-          actionResultList.add(action);
-          if (skipOnFirst) {
-            return actionResultList;
-          }
+    final List<Action> actionResultList = new SmartList<>();
+    for (final Pair<Action, PsiClass> actionAndClass : myActionsByClass.getValue().get(qualifiedName)) {
+      if (Comparing.equal(clazz, actionAndClass.second)) {
+        actionResultList.add(actionAndClass.first);
+        if (skipOnFirst) {
+          return actionResultList;
         }
       }
     }
@@ -109,28 +128,125 @@ class StrutsModelImpl extends DomModelImpl<StrutsRoot> implements StrutsModel {
     return actionResultList;
   }
 
+  @NotNull
+  private MultiMap<String, Pair<Action, PsiClass>> buildActionsByClass() {
+    final MultiMap<String, Pair<Action, PsiClass>> actionsByClass = MultiMap.createLinked();
+    for (final Action action : myActionNameIndex.getValue().myActions) {
+      final PsiClass actionClassValue = action.searchActionClass();
+      final String qualifiedName = actionClassValue != null ? actionClassValue.getQualifiedName() : null;
+      if (qualifiedName != null) {
+        actionsByClass.putValue(qualifiedName, Pair.create(action, actionClassValue));
+      }
+    }
+    return actionsByClass;
+  }
+
   @Override
   public boolean isActionClass(@NotNull final PsiClass clazz) {
     return !findActionsByClassInner(clazz, true).isEmpty();
   }
 
   public List<Action> getActionsForNamespace(@Nullable @NonNls final String namespace) {
-    final List<Action> actionResultList = new SmartList<>();
+    final ActionNameIndex index = myActionNameIndex.getValue();
+    if (namespace == null) {
+      return Collections.unmodifiableList(index.myActions);
+    }
 
-    for (final StrutsPackage strutsPackage : getStrutsPackages()) {
-      if (namespace == null ||
-          Comparing.equal(namespace, strutsPackage.searchNamespace())) {
-        actionResultList.addAll(strutsPackage.getActions());
+    final List<Action> actions = index.myActionsByNamespace.get(namespace);
+    return actions != null ? Collections.unmodifiableList(actions) : Collections.emptyList();
+  }
+
+  public boolean processActions(final Processor<Action> processor) {
+    return ContainerUtil.process(myActionNameIndex.getValue().myActions, processor);
+  }
+
+  /**
+   * Lookup tables for all actions of the model, in the order of their packages.
+   */
+  private static class ActionNameIndex {
+
+    private final List<Action> myActions = new ArrayList<>();
+    private final Map<Action, Integer> myOrdinals = new HashMap<>();
+
+    private final Map<String, List<Action>> myActionsByNamespace = new HashMap<>();
+
+    // namespace -> exact action name -> actions
+    private final Map<String, MultiMap<String, Action>> myExactActions = new HashMap<>();
+    private final MultiMap<String, Action> myAllExactActions = new MultiMap<>();
+
+    private final List<WildcardAction> myWildcardActions = new ArrayList<>();
+
+    private ActionNameIndex(final List<StrutsPackage> strutsPackages) {
+      for (final StrutsPackage strutsPackage : strutsPackages) {
+        final String namespace = strutsPackage.searchNamespace();
+        final List<Action> namespaceActions = ContainerUtil.getOrCreate(myActionsByNamespace, namespace, new ArrayList<>());
+        final MultiMap<String, Action> exactActions = ContainerUtil.getOrCreate(myExactActions, namespace, new MultiMap<>());
+
+        for (final Action action : strutsPackage.getActions()) {
+          myOrdinals.put(action, myActions.size());
+          myActions.add(action);
+          namespaceActions.add(action);
+
+          final String name = ActionUtil.getActionPath(action);
+          if (name == null) {
+            continue;
+          }
+          if (name.indexOf('*') == -1) {
+            exactActions.putValue(name, action);
+            myAllExactActions.putValue(name, action);
+          }
+          else {
+            final Pattern pattern = ActionUtil.compileWildcardPattern(name);
+            if (pattern != null) {
+              myWildcardActions.add(new WildcardAction(action, namespace, pattern));
+            }
+          }
+        }
       }
     }
-    return actionResultList;
+
+    /**
+     * Same matching as {@link Action#matchesPath(String)}.
+     */
+    private List<Action> findActions(final String path, @Nullable final String namespace) {
+      final String strippedPath = ActionUtil.stripMethodInvocation(path);
+
+      final List<Action> result = new SmartList<>();
+      if (namespace == null) {
+        result.addAll(myAllExactActions.get(strippedPath));
+      }
+      else {
+        final MultiMap<String, Action> exactActions = myExactActions.get(namespace);
+        if (exactActions != null) {
+          result.addAll(exactActions.get(strippedPath));
+        }
+      }
+
+      final int exactCount = result.size();
+      for (final WildcardAction wildcardAction : myWildcardActions) {
+        if ((namespace == null || namespace.equals(wildcardAction.myNamespace)) &&
+            wildcardAction.myPattern.matcher(strippedPath).matches()) {
+          result.add(wildcardAction.myAction);
+        }
+      }
+
+      if (exactCount != 0 && result.size() != exactCount) {
+        Collections.sort(result, (o1, o2) -> myOrdinals.get(o1) - myOrdinals.get(o2));
+      }
+      return result;
+    }
   }
 
-  public boolean processActions(final Processor<Action> processor) {
-    for (final StrutsPackage strutsPackage : getStrutsPackages()) {
-      final List<Action> actions = strutsPackage.getActions();
-      if (!ContainerUtil.process(actions, processor)) return false;
+  private static class WildcardAction {
+
+    private final Action myAction;
+    private final String myNamespace;
+    private final Pattern myPattern;
+
+    private WildcardAction(final Action action, final String namespace, final Pattern pattern) {
+      myAction = action;
+      myNamespace = namespace;
+      myPattern = pattern;
     }
-    return true;
   }
 }
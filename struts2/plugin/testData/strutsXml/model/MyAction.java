@@ -0,0 +1,7 @@
+public class MyAction {
+
+  public String execute() {
+    return null;
+  }
+
+}
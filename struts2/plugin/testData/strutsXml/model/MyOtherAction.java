@@ -0,0 +1,7 @@
+public class MyOtherAction {
+
+  public String execute() {
+    return null;
+  }
+
+}